@@ -0,0 +1,87 @@
+#!/bin/bash
+
+# ================================================================
+# TKT Backend - Second-Level Cache Benchmark
+# Logs in as an admin, fetches one vehicle repeatedly and reports
+# latency plus the Hibernate statements and cache hits it caused,
+# read from /actuator/prometheus before and after the run.
+#
+# Compare against an instance started with L2_CACHE_ENABLED=false.
+# Requires HIBERNATE_STATISTICS=true (the default).
+# ================================================================
+
+set -e
+
+BASE_URL="${BASE_URL:-http://localhost:8080/api}"
+MOBILE="${MOBILE:-9133733197}"
+PIN="${PIN:-777777}"
+CAMPUS="${CAMPUS:-east}"
+VEHICLE_ID="${VEHICLE_ID:-1}"
+REQUESTS="${REQUESTS:-2000}"
+CONCURRENCY="${CONCURRENCY:-20}"
+
+echo "=========================================="
+echo "TKT Second-Level Cache Benchmark"
+echo "=========================================="
+echo "Target:      $BASE_URL/vehicles/$VEHICLE_ID"
+echo "Requests:    $REQUESTS"
+echo "Concurrency: $CONCURRENCY"
+echo ""
+
+TOKEN=$(curl -s -H "Content-Type: application/json" \
+    -d "{\"mobileNumber\":\"$MOBILE\",\"pin\":\"$PIN\",\"tenantId\":\"$CAMPUS\"}" \
+    "$BASE_URL/auth/login" | sed -n 's/.*"accessToken":"\([^"]*\)".*/\1/p')
+
+if [ -z "$TOKEN" ]; then
+    echo "❌ Login failed, cannot run benchmark"
+    exit 1
+fi
+
+# Sum of a Prometheus metric, optionally filtered by a label matcher
+metric() {
+    curl -s -H "Authorization: Bearer $TOKEN" "$BASE_URL/actuator/prometheus" \
+        | grep "^$1" | grep -- "${2:-}" | awk '{ sum += $NF } END { printf "%d", sum }'
+}
+
+RESULTS=$(mktemp)
+trap 'rm -f "$RESULTS"' EXIT
+
+# Warm up (JIT, connection pool, cache)
+seq 50 | xargs -P "$CONCURRENCY" -I{} \
+    curl -s -o /dev/null -H "Authorization: Bearer $TOKEN" "$BASE_URL/vehicles/$VEHICLE_ID"
+
+STATEMENTS_BEFORE=$(metric hibernate_statements_total 'status="prepared"')
+HITS_BEFORE=$(metric hibernate_second_level_cache_requests_total 'result="hit"')
+MISSES_BEFORE=$(metric hibernate_second_level_cache_requests_total 'result="miss"')
+
+START=$(date +%s.%N)
+seq "$REQUESTS" | xargs -P "$CONCURRENCY" -I{} \
+    curl -s -o /dev/null -w "%{http_code} %{time_total}\n" \
+    -H "Authorization: Bearer $TOKEN" "$BASE_URL/vehicles/$VEHICLE_ID" >> "$RESULTS"
+END=$(date +%s.%N)
+
+ELAPSED=$(echo "$END - $START" | bc)
+STATEMENTS=$(( $(metric hibernate_statements_total 'status="prepared"') - STATEMENTS_BEFORE ))
+HITS=$(( $(metric hibernate_second_level_cache_requests_total 'result="hit"') - HITS_BEFORE ))
+MISSES=$(( $(metric hibernate_second_level_cache_requests_total 'result="miss"') - MISSES_BEFORE ))
+
+echo "Status codes:"
+cut -d' ' -f1 "$RESULTS" | sort | uniq -c | sed 's/^/  /'
+echo ""
+
+echo "Latency (seconds):"
+cut -d' ' -f2 "$RESULTS" | sort -n | awk '
+    { a[NR] = $1; sum += $1 }
+    END {
+        printf "  avg %.3f  p50 %.3f  p95 %.3f  p99 %.3f  max %.3f\n",
+            sum / NR, a[int(NR * 0.50) + 1], a[int(NR * 0.95) + 1], a[int(NR * 0.99) + 1], a[NR]
+    }'
+echo ""
+
+echo "Hibernate:"
+echo "  prepared statements: $STATEMENTS ($(echo "scale=2; $STATEMENTS / $REQUESTS" | bc) per request)"
+echo "  L2 cache hits:       $HITS"
+echo "  L2 cache misses:     $MISSES"
+echo ""
+echo "Elapsed:     ${ELAPSED}s"
+echo "Throughput:  $(echo "scale=1; $REQUESTS / $ELAPSED" | bc) req/s"
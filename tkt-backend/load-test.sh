@@ -0,0 +1,69 @@
+#!/bin/bash
+
+# ================================================================
+# TKT Backend - Authenticated Endpoint Load Test
+# Logs in once, then fires concurrent GETs at one endpoint and
+# reports throughput and latency percentiles.
+#
+# Compare configurations by running it against two instances, e.g.
+#   SPRING_PROFILES_ACTIVE=dev                 (synchronous text logging)
+#   SPRING_PROFILES_ACTIVE=dev,hotpath-logging (async JSON + sampling)
+# ================================================================
+
+set -e
+
+BASE_URL="${BASE_URL:-http://localhost:8080/api}"
+ENDPOINT="${ENDPOINT:-/vehicles}"
+MOBILE="${MOBILE:-9133733197}"
+PIN="${PIN:-777777}"
+CAMPUS="${CAMPUS:-east}"
+REQUESTS="${REQUESTS:-2000}"
+CONCURRENCY="${CONCURRENCY:-50}"
+
+echo "=========================================="
+echo "TKT Load Test"
+echo "=========================================="
+echo "Target:      $BASE_URL$ENDPOINT"
+echo "Requests:    $REQUESTS"
+echo "Concurrency: $CONCURRENCY"
+echo ""
+
+TOKEN=$(curl -s -H "Content-Type: application/json" \
+    -d "{\"mobileNumber\":\"$MOBILE\",\"pin\":\"$PIN\",\"tenantId\":\"$CAMPUS\"}" \
+    "$BASE_URL/auth/login" | sed -n 's/.*"accessToken":"\([^"]*\)".*/\1/p')
+
+if [ -z "$TOKEN" ]; then
+    echo "❌ Login failed, cannot run load test"
+    exit 1
+fi
+
+RESULTS=$(mktemp)
+trap 'rm -f "$RESULTS"' EXIT
+
+# Warm up (JIT, connection pool, caches)
+seq 100 | xargs -P "$CONCURRENCY" -I{} \
+    curl -s -o /dev/null -H "Authorization: Bearer $TOKEN" "$BASE_URL$ENDPOINT"
+
+START=$(date +%s.%N)
+seq "$REQUESTS" | xargs -P "$CONCURRENCY" -I{} \
+    curl -s -o /dev/null -w "%{http_code} %{time_total}\n" \
+    -H "Authorization: Bearer $TOKEN" "$BASE_URL$ENDPOINT" >> "$RESULTS"
+END=$(date +%s.%N)
+
+ELAPSED=$(echo "$END - $START" | bc)
+
+echo "Status codes:"
+cut -d' ' -f1 "$RESULTS" | sort | uniq -c | sed 's/^/  /'
+echo ""
+
+echo "Latency (seconds):"
+cut -d' ' -f2 "$RESULTS" | sort -n | awk '
+    { a[NR] = $1; sum += $1 }
+    END {
+        printf "  avg %.4f  p50 %.4f  p95 %.4f  p99 %.4f  max %.4f\n",
+            sum / NR, a[int(NR * 0.50) + 1], a[int(NR * 0.95) + 1], a[int(NR * 0.99) + 1], a[NR]
+    }'
+echo ""
+
+echo "Elapsed:     ${ELAPSED}s"
+echo "Throughput:  $(echo "scale=1; $REQUESTS / $ELAPSED" | bc) req/s"
@@ -0,0 +1,56 @@
+#!/bin/bash
+
+# ================================================================
+# TKT Backend - Login Throughput Benchmark
+# Fires concurrent logins at a running instance and reports
+# throughput, latency and status code distribution (200 / 401 / 429)
+# Start the server with LOGIN_THROTTLE_ENABLED=false, otherwise the
+# per-account limiter answers most requests with 429
+# ================================================================
+
+set -e
+
+BASE_URL="${BASE_URL:-http://localhost:8080/api}"
+MOBILE="${MOBILE:-9133733197}"
+PIN="${PIN:-777777}"
+CAMPUS="${CAMPUS:-east}"
+REQUESTS="${REQUESTS:-200}"
+CONCURRENCY="${CONCURRENCY:-50}"
+
+echo "=========================================="
+echo "TKT Login Benchmark"
+echo "=========================================="
+echo "Target:      $BASE_URL/auth/login"
+echo "Requests:    $REQUESTS"
+echo "Concurrency: $CONCURRENCY"
+echo ""
+
+RESULTS=$(mktemp)
+trap 'rm -f "$RESULTS"' EXIT
+
+BODY="{\"mobileNumber\":\"$MOBILE\",\"pin\":\"$PIN\",\"tenantId\":\"$CAMPUS\"}"
+
+START=$(date +%s.%N)
+seq "$REQUESTS" | xargs -P "$CONCURRENCY" -I{} \
+    curl -s -o /dev/null -w "%{http_code} %{time_total}\n" \
+    -H "Content-Type: application/json" -d "$BODY" "$BASE_URL/auth/login" >> "$RESULTS"
+END=$(date +%s.%N)
+
+ELAPSED=$(echo "$END - $START" | bc)
+
+echo "Status codes:"
+cut -d' ' -f1 "$RESULTS" | sort | uniq -c | sed 's/^/  /'
+echo ""
+
+echo "Latency (seconds):"
+cut -d' ' -f2 "$RESULTS" | sort -n | awk '
+    { a[NR] = $1; sum += $1 }
+    END {
+        printf "  avg %.3f  p50 %.3f  p95 %.3f  p99 %.3f  max %.3f\n",
+            sum / NR, a[int(NR * 0.50) + 1], a[int(NR * 0.95) + 1], a[int(NR * 0.99) + 1], a[NR]
+    }'
+echo ""
+
+OK=$(grep -c "^200 " "$RESULTS" || true)
+echo "Elapsed:     ${ELAPSED}s"
+echo "Throughput:  $(echo "scale=1; $REQUESTS / $ELAPSED" | bc) req/s ($(echo "scale=1; $OK / $ELAPSED" | bc) successful logins/s)"
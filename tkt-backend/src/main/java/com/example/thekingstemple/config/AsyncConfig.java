@@ -3,7 +3,10 @@ package com.example.thekingstemple.config;
 import com.example.thekingstemple.util.TenantContext;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.core.task.TaskDecorator;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
@@ -14,14 +17,59 @@ import java.util.concurrent.Executor;
 /**
  * Configuration for async operations with tenant context propagation.
  * Ensures that tenant context is propagated from parent thread to async threads.
+ * With spring.threads.virtual.enabled=true, Tomcat requests, schedulers and @Async methods run on
+ * virtual threads. The dedicated executors below stay bounded platform pools: they exist to cap
+ * connections (reports, dashboard) or CPU (BCrypt logins), which virtual threads would not.
  */
 @Configuration
 @EnableAsync
 @Slf4j
 public class AsyncConfig implements AsyncConfigurer {
 
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${async.virtual.max-concurrent:200}")
+    private int virtualMaxConcurrent;
+
+    @Value("${reports.jobs.max-concurrent:2}")
+    private int reportJobsMaxConcurrent;
+
+    @Value("${reports.jobs.queue-capacity:20}")
+    private int reportJobsQueueCapacity;
+
+    @Value("${admin.dashboard.max-parallel-campuses:4}")
+    private int dashboardMaxParallelCampuses;
+
+    @Value("${auth.login.max-concurrent:4}")
+    private int loginMaxConcurrent;
+
+    @Value("${auth.login.queue-capacity:50}")
+    private int loginQueueCapacity;
+
+    @Value("${storage.upload.max-concurrent:8}")
+    private int uploadMaxConcurrent;
+
+    @Value("${storage.upload.queue-capacity:16}")
+    private int uploadQueueCapacity;
+
+    @Value("${images.renditions.max-concurrent:2}")
+    private int renditionsMaxConcurrent;
+
+    @Value("${images.renditions.queue-capacity:200}")
+    private int renditionsQueueCapacity;
+
     @Override
     public Executor getAsyncExecutor() {
+        if (virtualThreads) {
+            // One virtual thread per task; the limit keeps a burst from queueing on the connection pool unbounded
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("async-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(virtualMaxConcurrent);
+            executor.setTaskDecorator(new TenantAwareTaskDecorator());
+            return executor;
+        }
+
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(5);
         executor.setMaxPoolSize(10);
@@ -32,6 +80,84 @@ public class AsyncConfig implements AsyncConfigurer {
         return executor;
     }
 
+    /**
+     * Bounded executor for background report jobs.
+     * Fixed number of workers so long-running reports cannot take over the connection pool;
+     * submissions are rejected once the queue is full.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor reportJobExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(reportJobsMaxConcurrent);
+        executor.setMaxPoolSize(reportJobsMaxConcurrent);
+        executor.setQueueCapacity(reportJobsQueueCapacity);
+        executor.setThreadNamePrefix("report-job-");
+        executor.setTaskDecorator(new TenantAwareTaskDecorator());
+        return executor;
+    }
+
+    /**
+     * Bounded executor for the multi-campus dashboard fan-out.
+     * Each task binds its own campus tenant; the decorator guarantees the context is cleared afterwards.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor dashboardExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(dashboardMaxParallelCampuses);
+        executor.setMaxPoolSize(dashboardMaxParallelCampuses);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("dashboard-");
+        executor.setTaskDecorator(new TenantAwareTaskDecorator());
+        return executor;
+    }
+
+    /**
+     * Bounded executor for PIN verification during login.
+     * BCrypt is CPU-bound, so a login burst is capped at a fixed number of cores instead of
+     * competing with every request thread; logins beyond the queue are shed with 429.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor loginExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(loginMaxConcurrent);
+        executor.setMaxPoolSize(loginMaxConcurrent);
+        executor.setQueueCapacity(loginQueueCapacity);
+        executor.setThreadNamePrefix("login-");
+        executor.setTaskDecorator(new TenantAwareTaskDecorator());
+        return executor;
+    }
+
+    /**
+     * Bounded executor for the second photo of a vehicle upload, so car and key images upload concurrently.
+     * Uploads are network-bound; when the pool is saturated, callers upload on their own thread instead.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor photoUploadExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(uploadMaxConcurrent);
+        executor.setMaxPoolSize(uploadMaxConcurrent);
+        executor.setQueueCapacity(uploadQueueCapacity);
+        executor.setThreadNamePrefix("photo-upload-");
+        executor.setTaskDecorator(new TenantAwareTaskDecorator());
+        return executor;
+    }
+
+    /**
+     * Bounded executor for photo renditions.
+     * Decoding a photo takes tens of MB of heap and a core for a moment, so only a few run at once;
+     * work beyond the queue is rejected and picked up by the backfill on the next startup.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor imageRenditionExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(renditionsMaxConcurrent);
+        executor.setMaxPoolSize(renditionsMaxConcurrent);
+        executor.setQueueCapacity(renditionsQueueCapacity);
+        executor.setThreadNamePrefix("image-rendition-");
+        executor.setTaskDecorator(new TenantAwareTaskDecorator());
+        return executor;
+    }
+
     @Override
     public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
         return (throwable, method, params) -> {
@@ -44,29 +170,14 @@ public class AsyncConfig implements AsyncConfigurer {
      * Task decorator that captures tenant context from parent thread
      * and sets it in the async thread before task execution.
      */
-    @Slf4j
     static class TenantAwareTaskDecorator implements TaskDecorator {
         @Override
         public Runnable decorate(Runnable runnable) {
             // Capture tenant context from current (parent) thread
             String tenantId = TenantContext.getTenantId();
 
-            return () -> {
-                try {
-                    // Set tenant context in async thread
-                    if (tenantId != null) {
-                        TenantContext.setTenantId(tenantId);
-                        log.debug("Propagated tenant context to async thread: {}", tenantId);
-                    }
-
-                    // Execute the actual task
-                    runnable.run();
-                } finally {
-                    // Always clear tenant context after async task completes
-                    TenantContext.clear();
-                    log.debug("Cleared tenant context after async task completion");
-                }
-            };
+            // Bind it in the async thread for the task only; whatever the task leaves behind is cleared
+            return () -> TenantContext.runWithTenant(tenantId, runnable);
         }
     }
 }
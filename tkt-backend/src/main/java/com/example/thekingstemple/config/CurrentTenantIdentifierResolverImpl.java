@@ -20,23 +20,18 @@ public class CurrentTenantIdentifierResolverImpl implements CurrentTenantIdentif
 
     @Override
     public String resolveCurrentTenantIdentifier() {
+        // Called for every session: keep logging at debug, thread name comes from the log pattern
         String tenantId = TenantContext.getTenantId();
-        String threadName = Thread.currentThread().getName();
-
-        log.info("[HIBERNATE-TENANT-RESOLVER] resolveCurrentTenantIdentifier() called on thread: {}, TenantContext.getTenantId() = {}",
-                threadName, tenantId);
 
         if (tenantId == null) {
             // During Spring initialization (repository setup), no tenant context is available.
             // Return default tenant to allow initialization to proceed.
             // Actual requests will have tenant context set via JwtAuthenticationFilter.
-            log.info("[HIBERNATE-TENANT-RESOLVER] No tenant context set, using default tenant: {} on thread: {}",
-                    DEFAULT_TENANT, threadName);
+            log.debug("[HIBERNATE-TENANT-RESOLVER] No tenant context set, using default tenant: {}", DEFAULT_TENANT);
             return DEFAULT_TENANT;
         }
 
-        log.info("[HIBERNATE-TENANT-RESOLVER] Resolved campus/tenant schema: {} for database query on thread: {}",
-                tenantId, threadName);
+        log.debug("[HIBERNATE-TENANT-RESOLVER] Resolved campus/tenant schema: {} for database query", tenantId);
         return tenantId;
     }
 
@@ -0,0 +1,15 @@
+package com.example.thekingstemple.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a controller method as heavy database work (range reports, dashboards).
+ * Such requests take a permit of the campus HEAVY bulkhead instead of the INTERACTIVE one.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface HeavyEndpoint {
+}
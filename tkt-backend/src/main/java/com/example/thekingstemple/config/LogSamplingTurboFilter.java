@@ -0,0 +1,80 @@
+package com.example.thekingstemple.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logback turbo filter that samples INFO and below for hot-path logger categories.
+ * Only one in {@code rate} events per category is let through; WARN and ERROR always pass.
+ * Turbo filters run before the event is created, so dropped events cost no formatting at all.
+ * They also run before the level check, so calls below the logger's level are passed on untouched
+ * and cost no more than without the filter.
+ * Configured in logback-spring.xml.
+ */
+public class LogSamplingTurboFilter extends TurboFilter {
+
+    private List<String> categories = List.of();
+    private int rate = 100;
+
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (level == null || level.isGreaterOrEqual(Level.WARN) || rate <= 1) {
+            return FilterReply.NEUTRAL;
+        }
+
+        // Disabled anyway: let the level check reject it without touching the counters
+        if (!level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+
+        String category = matchCategory(logger.getName());
+        if (category == null) {
+            return FilterReply.NEUTRAL;
+        }
+
+        // isXxxEnabled() checks (format == null) must not consume a sample
+        if (format == null) {
+            return FilterReply.NEUTRAL;
+        }
+
+        long count = counters.computeIfAbsent(category, key -> new AtomicLong()).getAndIncrement();
+        return count % rate == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private String matchCategory(String loggerName) {
+        for (String category : categories) {
+            if (loggerName.startsWith(category)) {
+                return category;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Comma-separated logger name prefixes to sample
+     */
+    public void setCategories(String categories) {
+        this.categories = Arrays.stream(categories.split(","))
+                .map(String::trim)
+                .filter(category -> !category.isEmpty())
+                .toList();
+    }
+
+    /**
+     * Keep one in {@code rate} events per category
+     */
+    public void setRate(int rate) {
+        this.rate = rate;
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.thekingstemple.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * PostgreSQL LISTEN/NOTIFY bridge used to propagate in-memory cache changes between instances.
+ * A single daemon thread holds one dedicated connection that LISTENs on all
+ * subscribed channels and dispatches payloads to handlers. On (re)connect the reconnect handlers run,
+ * since notifications sent while disconnected are lost and caches must be reloaded.
+ * The LISTEN connection is opened directly from spring.datasource.* rather than borrowed from Hikari,
+ * so it never takes a slot from the pool (or from the per-campus budgets carved out of it).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PgNotificationListener {
+
+    private static final Pattern CHANNEL_PATTERN = Pattern.compile("^[a-z_]{1,63}$");
+
+    private final DataSourceProperties dataSourceProperties;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${pg.notify.poll-timeout-ms:1000}")
+    private int pollTimeoutMs;
+
+    @Value("${pg.notify.reconnect-delay-ms:5000}")
+    private long reconnectDelayMs;
+
+    private final Map<String, List<Consumer<String>>> handlers = new ConcurrentHashMap<>();
+    private final List<Runnable> reconnectHandlers = new CopyOnWriteArrayList<>();
+
+    private volatile boolean running;
+    private volatile boolean connected;
+    private volatile boolean resubscribe;
+    private Thread listenerThread;
+
+    /**
+     * Register a handler for notifications on a channel
+     */
+    public void subscribe(String channel, Consumer<String> handler) {
+        if (!CHANNEL_PATTERN.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid notification channel: " + channel);
+        }
+        handlers.computeIfAbsent(channel, key -> new CopyOnWriteArrayList<>()).add(handler);
+        resubscribe = true;
+    }
+
+    /**
+     * Register a callback invoked every time the listener (re)connects
+     */
+    public void onReconnect(Runnable handler) {
+        reconnectHandlers.add(handler);
+    }
+
+    /**
+     * Send a notification. Inside a transaction PostgreSQL delivers it only on commit.
+     */
+    public void publish(String channel, String payload) {
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> { }, channel, payload);
+    }
+
+    /**
+     * Whether the listener currently holds a LISTENing connection.
+     * While false, notifications may be missed and callers should not trust caches fed by them.
+     */
+    public boolean isConnected() {
+        return connected;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        listenerThread = new Thread(this::listenLoop, "pg-notify-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    private void listenLoop() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                connection.setAutoCommit(true);
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+
+                listenAll(connection);
+                connected = true;
+                log.info("Listening for database notifications on channels: {}", handlers.keySet());
+                reconnectHandlers.forEach(this::runSafely);
+
+                while (running) {
+                    if (resubscribe) {
+                        listenAll(connection);
+                    }
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMs);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            dispatch(notification.getName(), notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Database notification listener disconnected: {}", e.getMessage());
+                }
+            } finally {
+                connected = false;
+            }
+
+            if (running) {
+                try {
+                    Thread.sleep(reconnectDelayMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void listenAll(Connection connection) throws SQLException {
+        resubscribe = false;
+        try (Statement statement = connection.createStatement()) {
+            for (String channel : handlers.keySet()) {
+                // Channel names are validated on subscribe
+                statement.execute("LISTEN " + channel);
+            }
+        }
+    }
+
+    private void dispatch(String channel, String payload) {
+        List<Consumer<String>> channelHandlers = handlers.get(channel);
+        if (channelHandlers == null) {
+            return;
+        }
+        for (Consumer<String> handler : channelHandlers) {
+            runSafely(() -> handler.accept(payload));
+        }
+    }
+
+    private void runSafely(Runnable task) {
+        try {
+            task.run();
+        } catch (Exception e) {
+            log.error("Error handling database notification: {}", e.getMessage(), e);
+        }
+    }
+}
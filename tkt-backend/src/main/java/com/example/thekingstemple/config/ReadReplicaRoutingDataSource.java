@@ -0,0 +1,63 @@
+package com.example.thekingstemple.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Routing DataSource that sends read-only transactions to the replica pool and everything else to the primary.
+ * The read-only flag is published by RoutingJpaTransactionManager before the transaction acquires its connection,
+ * and the replica is skipped while ReplicaLagMonitor reports it as lagging or unreachable.
+ * SchemaBasedMultiTenantConnectionProvider sits on top of this DataSource, so the tenant search_path
+ * is applied to whichever pool the connection comes from.
+ */
+@Slf4j
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    // Stack so nested REQUIRES_NEW transactions restore the outer transaction's route
+    private static final ThreadLocal<Deque<Boolean>> readOnlyTransactions = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private final ReplicaLagMonitor replicaLagMonitor;
+
+    public ReadReplicaRoutingDataSource(ReplicaLagMonitor replicaLagMonitor) {
+        this.replicaLagMonitor = replicaLagMonitor;
+    }
+
+    /**
+     * Mark the start of a transaction on the current thread
+     */
+    static void pushTransaction(boolean readOnly) {
+        readOnlyTransactions.get().push(readOnly);
+    }
+
+    /**
+     * Mark the end of the innermost transaction on the current thread
+     */
+    static void popTransaction() {
+        Deque<Boolean> stack = readOnlyTransactions.get();
+        stack.poll();
+        if (stack.isEmpty()) {
+            readOnlyTransactions.remove();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Boolean readOnly = readOnlyTransactions.get().peek();
+        if (readOnly == null || !readOnly) {
+            return Route.PRIMARY;
+        }
+        if (!replicaLagMonitor.isReplicaAvailable()) {
+            log.debug("Replica unavailable or lagging, routing read-only transaction to primary");
+            return Route.PRIMARY;
+        }
+        return Route.REPLICA;
+    }
+}
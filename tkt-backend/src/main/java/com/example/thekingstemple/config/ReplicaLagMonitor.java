@@ -0,0 +1,71 @@
+package com.example.thekingstemple.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Periodically measures replication lag on the replica pool.
+ * While the replica is unreachable or lags more than the configured threshold,
+ * read-only transactions fall back to the primary.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    // Lag is zero on a server that is not in recovery, or when everything received has been replayed
+    private static final String LAG_QUERY =
+            "SELECT CASE " +
+            "WHEN NOT pg_is_in_recovery() THEN 0 " +
+            "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+    private final DataSource replicaDataSource;
+    private final long maxLagMs;
+
+    private volatile boolean replicaAvailable = false;
+    private volatile long lastLagMs = -1;
+
+    public ReplicaLagMonitor(DataSource replicaDataSource, long maxLagMs) {
+        this.replicaDataSource = replicaDataSource;
+        this.maxLagMs = maxLagMs;
+    }
+
+    public boolean isReplicaAvailable() {
+        return replicaAvailable;
+    }
+
+    public long getLastLagMs() {
+        return lastLagMs;
+    }
+
+    /**
+     * Check replica lag (runs on a fixed delay, and once right after startup)
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${datasource.replica.lag-check-interval-ms:5000}")
+    public void checkReplicaLag() {
+        boolean available;
+        try (Connection connection = replicaDataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+            resultSet.next();
+            lastLagMs = (long) resultSet.getDouble(1);
+            available = lastLagMs <= maxLagMs;
+            if (!available) {
+                log.warn("[REPLICA] Replication lag {} ms exceeds threshold {} ms", lastLagMs, maxLagMs);
+            }
+        } catch (Exception e) {
+            lastLagMs = -1;
+            available = false;
+            log.warn("[REPLICA] Replica health check failed: {}", e.getMessage());
+        }
+
+        if (available != replicaAvailable) {
+            log.info("[REPLICA] Read-only transactions now routed to: {}", available ? "replica" : "primary");
+        }
+        replicaAvailable = available;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.thekingstemple.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+/**
+ * JpaTransactionManager that publishes the read-only flag of each new transaction before the
+ * transaction begins. Spring only exposes the flag after the connection has been acquired,
+ * which is too late for ReadReplicaRoutingDataSource to pick the replica.
+ */
+public class RoutingJpaTransactionManager extends JpaTransactionManager {
+
+    private static final long serialVersionUID = 1L;
+
+    public RoutingJpaTransactionManager(EntityManagerFactory entityManagerFactory) {
+        super(entityManagerFactory);
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        ReadReplicaRoutingDataSource.pushTransaction(definition.isReadOnly());
+        try {
+            super.doBegin(transaction, definition);
+        } catch (RuntimeException | Error e) {
+            // Cleanup is not invoked when the transaction fails to begin
+            ReadReplicaRoutingDataSource.popTransaction();
+            throw e;
+        }
+    }
+
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction) {
+        try {
+            super.doCleanupAfterCompletion(transaction);
+        } finally {
+            ReadReplicaRoutingDataSource.popTransaction();
+        }
+    }
+}
@@ -1,24 +1,30 @@
 package com.example.thekingstemple.config;
 
+import com.example.thekingstemple.service.TenantRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.cfg.AvailableSettings;
 import org.hibernate.engine.jdbc.connections.spi.MultiTenantConnectionProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.stereotype.Component;
 
 import javax.sql.DataSource;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.util.Arrays;
-import java.util.HashSet;
 import java.util.Map;
-import java.util.Set;
 
 /**
  * Provides database connections with the appropriate schema set for each tenant
- * Uses PostgreSQL schemas: east, west, north, south
+ * Uses one PostgreSQL schema per campus, as registered in the TenantRegistry
+ * When read-replica routing is enabled, the injected DataSource is the routing DataSource,
+ * so the schema is set on primary and replica connections alike.
+ * With multitenancy.pool-per-tenant=true, campus connections come from TenantConnectionPools instead
+ * (primary only), and no SET search_path is issued per checkout.
+ * With multitenancy.mode=shared, all campuses use schema "shared" and the campus is selected by the
+ * app.tenant_id setting that its row-level security policies check (see SharedSchemaService).
  */
 @Component
 @Slf4j
@@ -26,15 +32,32 @@ public class SchemaBasedMultiTenantConnectionProvider implements MultiTenantConn
 
     private static final long serialVersionUID = 1L;
     private static final String DEFAULT_TENANT = "public";
-
-    // Whitelist of allowed tenant schemas to prevent SQL injection
-    private static final Set<String> ALLOWED_SCHEMAS = new HashSet<>(Arrays.asList(
-            "east", "west", "north", "south", "public"
-    ));
+    private static final String SHARED_MODE = "shared";
+    // One round trip: campus tables resolve to shared, token_blacklist to public
+    private static final String SET_SHARED_TENANT_SQL =
+            "SELECT set_config('search_path', ?, false), set_config('app.tenant_id', ?, false)";
 
     @Autowired
     private DataSource dataSource;
 
+    // Whitelist of allowed tenant schemas (active campuses) to prevent SQL injection
+    @Autowired
+    private TenantRegistry tenantRegistry;
+
+    // When enabled, campus connections come from per-campus pools with the schema already pinned
+    @Autowired
+    private TenantConnectionPools tenantConnectionPools;
+
+    @Value("${multitenancy.mode:schema}")
+    private String mode;
+
+    /**
+     * Whether a schema name is on the whitelist and safe to use in SQL
+     */
+    private boolean isAllowedSchema(String schema) {
+        return DEFAULT_TENANT.equals(schema) || tenantRegistry.isTenant(schema);
+    }
+
     @Override
     public Connection getAnyConnection() throws SQLException {
         return dataSource.getConnection();
@@ -47,26 +70,34 @@ public class SchemaBasedMultiTenantConnectionProvider implements MultiTenantConn
 
     @Override
     public Connection getConnection(String tenantIdentifier) throws SQLException {
-        log.info("[CONNECTION-PROVIDER] getConnection() called with tenantIdentifier: {} on thread: {}",
-                tenantIdentifier, Thread.currentThread().getName());
+        if (tenantConnectionPools.isEnabled() && tenantIdentifier != null && !DEFAULT_TENANT.equals(tenantIdentifier)) {
+            if (!isAllowedSchema(tenantIdentifier)) {
+                throw new SQLException("Invalid tenant schema: " + tenantIdentifier + ". Schema must be one of: " + tenantRegistry.getTenantIds());
+            }
+            return tenantConnectionPools.getDataSource(tenantIdentifier).getConnection();
+        }
 
         final Connection connection = getAnyConnection();
         try {
             String schema = tenantIdentifier != null ? tenantIdentifier : DEFAULT_TENANT;
 
-            log.info("[CONNECTION-PROVIDER] Using schema: {} (original tenantIdentifier: {})",
-                    schema, tenantIdentifier);
-
             // Validate schema name against whitelist to prevent SQL injection
-            if (!ALLOWED_SCHEMAS.contains(schema)) {
-                log.error("Attempted to access invalid tenant schema: {}. Allowed schemas: {}", schema, ALLOWED_SCHEMAS);
-                throw new SQLException("Invalid tenant schema: " + schema + ". Schema must be one of: " + ALLOWED_SCHEMAS);
+            if (!isAllowedSchema(schema)) {
+                log.error("Attempted to access invalid tenant schema: {}. Allowed schemas: {}", schema, tenantRegistry.getTenantIds());
+                throw new SQLException("Invalid tenant schema: " + schema + ". Schema must be one of: " + tenantRegistry.getTenantIds());
+            }
+
+            if (isSharedMode()) {
+                boolean campus = !DEFAULT_TENANT.equals(schema);
+                setSharedTenant(connection, campus ? SHARED_MODE + ", " + DEFAULT_TENANT : DEFAULT_TENANT, campus ? schema : "");
+                log.debug("[CONNECTION-PROVIDER] Switched shared-schema tenant to: {}", schema);
+                return connection;
             }
 
             // Set the PostgreSQL schema for this connection
             try (Statement statement = connection.createStatement()) {
                 statement.execute("SET search_path TO " + schema);
-                log.info("[CONNECTION-PROVIDER] Successfully switched database schema to: {}", schema);
+                log.debug("[CONNECTION-PROVIDER] Switched database schema to: {} (tenantIdentifier: {})", schema, tenantIdentifier);
             }
         } catch (SQLException e) {
             log.error("Failed to set schema to {}: {}", tenantIdentifier, e.getMessage());
@@ -77,18 +108,22 @@ public class SchemaBasedMultiTenantConnectionProvider implements MultiTenantConn
 
     @Override
     public void releaseConnection(String tenantIdentifier, Connection connection) throws SQLException {
-        try {
-            // Validate default schema (should always be valid, but defensive programming)
-            if (!ALLOWED_SCHEMAS.contains(DEFAULT_TENANT)) {
-                log.error("Invalid default schema: {}", DEFAULT_TENANT);
-                throw new SQLException("Invalid default schema: " + DEFAULT_TENANT);
-            }
+        if (tenantConnectionPools.isEnabled() && tenantIdentifier != null && !DEFAULT_TENANT.equals(tenantIdentifier)) {
+            // Per-campus pool: the connection keeps its schema, no reset needed
+            connection.close();
+            return;
+        }
 
-            // Reset to default schema before releasing
-            try (Statement statement = connection.createStatement()) {
-                statement.execute("SET search_path TO " + DEFAULT_TENANT);
-                log.debug("Reset schema to {} before releasing connection for tenant: {}", DEFAULT_TENANT, tenantIdentifier);
+        try {
+            // Reset to default schema (and no campus, in shared mode) before releasing
+            if (isSharedMode()) {
+                setSharedTenant(connection, DEFAULT_TENANT, "");
+            } else {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SET search_path TO " + DEFAULT_TENANT);
+                }
             }
+            log.debug("Reset schema to {} before releasing connection for tenant: {}", DEFAULT_TENANT, tenantIdentifier);
         } catch (SQLException e) {
             // Log the error but don't fail the release
             log.error("Error resetting schema to default before releasing connection: {}", e.getMessage(), e);
@@ -96,6 +131,18 @@ public class SchemaBasedMultiTenantConnectionProvider implements MultiTenantConn
         connection.close();
     }
 
+    private boolean isSharedMode() {
+        return SHARED_MODE.equals(mode);
+    }
+
+    private void setSharedTenant(Connection connection, String searchPath, String tenantId) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(SET_SHARED_TENANT_SQL)) {
+            statement.setString(1, searchPath);
+            statement.setString(2, tenantId);
+            statement.execute();
+        }
+    }
+
     @Override
     public boolean supportsAggressiveRelease() {
         return false;
@@ -0,0 +1,83 @@
+package com.example.thekingstemple.config;
+
+import com.example.thekingstemple.entity.User;
+import com.example.thekingstemple.entity.Vehicle;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hibernate second-level cache for User and Vehicle, backed by Caffeine through JCache.
+ * Cache keys include the tenant identifier (Hibernate's default keys factory), so a user or vehicle
+ * id of one campus never resolves to another campus' row. Regions are bounded and expire after
+ * write as a backstop for changes made outside Hibernate; updates through Hibernate evict
+ * immediately, and on other instances via SecondLevelCacheInvalidator.
+ */
+@Component
+@Slf4j
+public class SecondLevelCacheConfig implements HibernatePropertiesCustomizer {
+
+    @Value("${hibernate.second-level-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${hibernate.second-level-cache.user.max-entries:10000}")
+    private long userMaxEntries;
+
+    @Value("${hibernate.second-level-cache.vehicle.max-entries:50000}")
+    private long vehicleMaxEntries;
+
+    @Value("${hibernate.second-level-cache.expire-after-write-minutes:10}")
+    private long expireAfterWriteMinutes;
+
+    private CacheManager cacheManager;
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, enabled);
+        if (!enabled) {
+            return;
+        }
+
+        cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager();
+        createRegion(User.CACHE_REGION, userMaxEntries);
+        createRegion(Vehicle.CACHE_REGION, vehicleMaxEntries);
+
+        hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+        hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+        // Regions are created above with bounds; an unknown region is a mapping error, not an unbounded cache
+        hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, false);
+
+        log.info("Second-level cache enabled (users: {}, vehicles: {} entries, expire after {} min)",
+                userMaxEntries, vehicleMaxEntries, expireAfterWriteMinutes);
+    }
+
+    private void createRegion(String region, long maxEntries) {
+        if (cacheManager.getCache(region) != null) {
+            return;
+        }
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxEntries));
+        configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.MINUTES.toNanos(expireAfterWriteMinutes)));
+        cacheManager.createCache(region, configuration);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (cacheManager != null) {
+            cacheManager.close();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.thekingstemple.config;
+
+import com.example.thekingstemple.entity.User;
+import com.example.thekingstemple.entity.Vehicle;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.util.UUID;
+
+/**
+ * Keeps second-level cache entries consistent across instances.
+ * Hibernate evicts locally on update/delete; this listener additionally sends a NOTIFY on the
+ * writing session's own connection, so other instances evict the same (tenant, entity, id) key
+ * only once the transaction commits. While the notification listener was disconnected,
+ * evictions may have been missed, so the cached regions are cleared on every reconnect.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SecondLevelCacheInvalidator implements PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final String EVICT_CHANNEL = "entity_cache_evict";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final PgNotificationListener notificationListener;
+
+    // Identifies notifications sent by this instance, which Hibernate has already applied locally
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private SessionFactoryImplementor sessionFactory;
+
+    @PostConstruct
+    public void init() {
+        sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        if (!sessionFactory.getSessionFactoryOptions().isSecondLevelCacheEnabled()) {
+            return;
+        }
+
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+
+        notificationListener.subscribe(EVICT_CHANNEL, this::onEvictNotification);
+        notificationListener.onReconnect(this::evictAll);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        publishEviction(event.getSession(), event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        publishEviction(event.getSession(), event.getPersister(), event.getId());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void publishEviction(EventSource session, EntityPersister persister, Object id) {
+        if (!persister.canWriteToCache()) {
+            return;
+        }
+        String tenantId = session.getTenantIdentifier();
+        String payload = String.join("|", instanceId, tenantId != null ? tenantId : "",
+                persister.getEntityName(), String.valueOf(id));
+
+        // Same connection and transaction as the write: delivered on commit, dropped on rollback
+        session.doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+                statement.setString(1, EVICT_CHANNEL);
+                statement.setString(2, payload);
+                statement.execute();
+            }
+        });
+    }
+
+    private void onEvictNotification(String payload) {
+        String[] parts = payload.split("\\|");
+        if (parts.length != 4 || parts[0].equals(instanceId)) {
+            return;
+        }
+
+        EntityPersister persister = sessionFactory.getMappingMetamodel().findEntityDescriptor(parts[2]);
+        if (persister == null || !persister.canWriteToCache()) {
+            return;
+        }
+        // Both cached entities have Long ids
+        String tenantId = parts[1].isEmpty() ? null : parts[1];
+        EntityDataAccess access = persister.getCacheAccessStrategy();
+        access.evict(access.generateCacheKey(Long.valueOf(parts[3]), persister, sessionFactory, tenantId));
+        log.debug("Evicted {}#{} of tenant {} from second-level cache", parts[2], parts[3], tenantId);
+    }
+
+    private void evictAll() {
+        sessionFactory.getCache().evictEntityData(User.class);
+        sessionFactory.getCache().evictEntityData(Vehicle.class);
+        log.info("Cleared second-level cache after notification listener (re)connect");
+    }
+}
@@ -2,6 +2,7 @@ package com.example.thekingstemple.config;
 
 import com.example.thekingstemple.security.JwtAuthenticationFilter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -32,9 +33,13 @@ public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    // Cost policy for PIN hashes; existing hashes are re-hashed on login when it changes
+    @Value("${security.pin-hash.bcrypt-cost:12}")
+    private int bcryptCost;
+
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12); // Strength 12 for PINs
+        return new BCryptPasswordEncoder(bcryptCost);
     }
 
     @Bean
@@ -47,7 +52,7 @@ public class SecurityConfig {
                 )
                 .authorizeHttpRequests(auth -> auth
                         // Public endpoints
-                        .requestMatchers("/auth/login", "/auth/refresh").permitAll()
+                        .requestMatchers("/auth/login", "/auth/refresh", "/auth/campuses").permitAll()
                         .requestMatchers("/actuator/health").permitAll()
 
                         // Admin-only endpoints
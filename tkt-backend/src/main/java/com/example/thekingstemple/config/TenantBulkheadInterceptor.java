@@ -0,0 +1,59 @@
+package com.example.thekingstemple.config;
+
+import com.example.thekingstemple.service.TenantBulkheadService;
+import com.example.thekingstemple.util.TenantContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Takes a campus bulkhead permit before a controller runs and releases it when the request completes.
+ * The campus comes from the tenant context set by the JWT filter; unauthenticated requests are not limited.
+ * Handlers taking photo uploads are not limited either: the permit would be held while the client sends
+ * the file and it is uploaded to storage, so slow uploads would use up the budget of the campus gates.
+ */
+@Component
+@RequiredArgsConstructor
+public class TenantBulkheadInterceptor implements HandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = TenantBulkheadInterceptor.class.getName() + ".permit";
+
+    private final TenantBulkheadService tenantBulkheadService;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String tenantId = TenantContext.getTenantId();
+        if (!tenantBulkheadService.isEnabled() || tenantId == null || !(handler instanceof HandlerMethod handlerMethod)
+                || takesUpload(handlerMethod)) {
+            return true;
+        }
+
+        TenantBulkheadService.Budget budget = handlerMethod.hasMethodAnnotation(HeavyEndpoint.class)
+                ? TenantBulkheadService.Budget.HEAVY
+                : TenantBulkheadService.Budget.INTERACTIVE;
+        request.setAttribute(PERMIT_ATTRIBUTE, tenantBulkheadService.acquire(tenantId, budget));
+        return true;
+    }
+
+    private boolean takesUpload(HandlerMethod handlerMethod) {
+        for (MethodParameter parameter : handlerMethod.getMethodParameters()) {
+            if (parameter.getParameterType() == MultipartFile.class) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) instanceof TenantBulkheadService.Permit permit) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            permit.release();
+        }
+    }
+}
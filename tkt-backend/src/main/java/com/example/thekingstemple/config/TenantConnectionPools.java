@@ -0,0 +1,176 @@
+package com.example.thekingstemple.config;
+
+import com.example.thekingstemple.service.TenantRegistry;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One Hikari pool per campus, used when multitenancy.pool-per-tenant=true.
+ * Each pool pins its schema once per physical connection through connectionInitSql, so checkouts
+ * and returns need no SET search_path round trips. Pool size per campus is either set explicitly
+ * (multitenancy.pools.sizes.<tenant>) or derived from a share of multitenancy.pools.total-connections
+ * (multitenancy.pools.shares.<tenant>, default 1). Pools are created lazily and closed when a campus
+ * is deactivated. In shared-schema mode the pinned state is the campus (app.tenant_id) instead of its schema.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TenantConnectionPools {
+
+    private final DataSourceProperties dataSourceProperties;
+    private final TenantRegistry tenantRegistry;
+    // Resolved lazily: this bean is created while Hibernate boots, before metrics are needed
+    private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+    private final Environment environment;
+
+    @Value("${multitenancy.pool-per-tenant:false}")
+    private boolean enabled;
+
+    @Value("${multitenancy.mode:schema}")
+    private String mode;
+
+    @Value("${multitenancy.pools.total-connections:40}")
+    private int totalConnections;
+
+    @Value("${multitenancy.pools.min-size:2}")
+    private int minPoolSize;
+
+    @Value("${multitenancy.pools.minimum-idle:1}")
+    private int minimumIdle;
+
+    @Value("${spring.datasource.hikari.connection-timeout:30000}")
+    private long connectionTimeout;
+
+    @Value("${spring.datasource.hikari.idle-timeout:600000}")
+    private long idleTimeout;
+
+    @Value("${spring.datasource.hikari.max-lifetime:1800000}")
+    private long maxLifetime;
+
+    private final Map<String, HikariDataSource> pools = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        if (enabled) {
+            tenantRegistry.addChangeListener(this::closeRemovedPools);
+            log.info("Per-tenant connection pools enabled ({} connections shared across campuses)", totalConnections);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Get (creating on first use) the pool of a campus
+     */
+    public DataSource getDataSource(String tenantId) {
+        HikariDataSource pool = pools.get(tenantId);
+        if (pool != null) {
+            return pool;
+        }
+        // Schema name goes into connectionInitSql, so it must be a registered, valid tenant
+        if (!TenantRegistry.isValidTenantId(tenantId) || !tenantRegistry.isTenant(tenantId)) {
+            throw new IllegalArgumentException("Invalid tenant schema: " + tenantId);
+        }
+        return pools.computeIfAbsent(tenantId, this::createPool);
+    }
+
+    private HikariDataSource createPool(String tenantId) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("tenant-" + tenantId);
+        config.setJdbcUrl(dataSourceProperties.determineUrl());
+        config.setUsername(dataSourceProperties.determineUsername());
+        config.setPassword(dataSourceProperties.determinePassword());
+        config.setDriverClassName(dataSourceProperties.determineDriverClassName());
+        config.setConnectionInitSql("shared".equals(mode)
+                ? "SELECT set_config('search_path', 'shared, public', false), set_config('app.tenant_id', '" + tenantId + "', false)"
+                : "SET search_path TO " + tenantId);
+        config.setMaximumPoolSize(poolSize(tenantId));
+        config.setMinimumIdle(Math.min(minimumIdle, config.getMaximumPoolSize()));
+        config.setConnectionTimeout(connectionTimeout);
+        config.setIdleTimeout(idleTimeout);
+        config.setMaxLifetime(maxLifetime);
+        // Hikari's own metrics are tagged pool=tenant-<id>
+        MeterRegistry meterRegistry = meterRegistryProvider.getObject();
+        config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+        HikariDataSource pool = new HikariDataSource(config);
+        registerTenantGauges(tenantId, pool, meterRegistry);
+
+        log.info("Created connection pool for campus: {} (max size {})", tenantId, config.getMaximumPoolSize());
+        return pool;
+    }
+
+    /**
+     * Explicit size if configured, otherwise the campus share of the total connection budget
+     */
+    private int poolSize(String tenantId) {
+        Integer explicitSize = environment.getProperty("multitenancy.pools.sizes." + tenantId, Integer.class);
+        if (explicitSize != null) {
+            return explicitSize;
+        }
+
+        double totalShares = 0;
+        for (String id : tenantRegistry.getTenantIds()) {
+            totalShares += share(id);
+        }
+        int size = (int) Math.round(totalConnections * share(tenantId) / Math.max(totalShares, 1));
+        return Math.max(minPoolSize, size);
+    }
+
+    private double share(String tenantId) {
+        return environment.getProperty("multitenancy.pools.shares." + tenantId, Double.class, 1.0);
+    }
+
+    private void registerTenantGauges(String tenantId, HikariDataSource pool, MeterRegistry meterRegistry) {
+        Gauge.builder("db.pool.tenant.active", pool, p -> p.getHikariPoolMXBean().getActiveConnections())
+                .tag("tenant", tenantId).register(meterRegistry);
+        Gauge.builder("db.pool.tenant.idle", pool, p -> p.getHikariPoolMXBean().getIdleConnections())
+                .tag("tenant", tenantId).register(meterRegistry);
+        Gauge.builder("db.pool.tenant.pending", pool, p -> p.getHikariPoolMXBean().getThreadsAwaitingConnection())
+                .tag("tenant", tenantId).register(meterRegistry);
+        Gauge.builder("db.pool.tenant.max", pool, p -> p.getMaximumPoolSize())
+                .tag("tenant", tenantId).register(meterRegistry);
+    }
+
+    private void closeRemovedPools(List<String> tenantIds) {
+        pools.keySet().removeIf(tenantId -> {
+            if (tenantIds.contains(tenantId)) {
+                return false;
+            }
+            pools.get(tenantId).close();
+            MeterRegistry meterRegistry = meterRegistryProvider.getObject();
+            meterRegistry.getMeters().stream()
+                    .filter(meter -> meter.getId().getName().startsWith("db.pool.tenant.")
+                            && tenantId.equals(meter.getId().getTag("tenant")))
+                    .toList()
+                    .forEach(meterRegistry::remove);
+            log.info("Closed connection pool of deactivated campus: {}", tenantId);
+            return true;
+        });
+    }
+
+    @PreDestroy
+    public void closeAll() {
+        pools.values().forEach(HikariDataSource::close);
+        pools.clear();
+    }
+}
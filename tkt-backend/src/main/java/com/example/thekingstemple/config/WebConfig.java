@@ -0,0 +1,23 @@
+package com.example.thekingstemple.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Spring MVC configuration
+ */
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final TenantBulkheadInterceptor tenantBulkheadInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Login and campus listing have no tenant yet; they are limited by the login throttle instead
+        // Photo downloads stream from storage for as long as the client reads; they hold no connection meanwhile
+        registry.addInterceptor(tenantBulkheadInterceptor).excludePathPatterns("/auth/**", "/vehicles/*/images/*");
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.thekingstemple.controller;
+
+import com.example.thekingstemple.dto.response.ApiResponse;
+import com.example.thekingstemple.dto.response.AuditLogPageResponse;
+import com.example.thekingstemple.service.AuditQueryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+
+/**
+ * Controller for the audit trail of the current campus
+ */
+@RestController
+@RequestMapping("/admin/audit")
+@RequiredArgsConstructor
+@Slf4j
+public class AdminAuditController {
+
+    private final AuditQueryService auditQueryService;
+
+    /**
+     * Page through audit logs, newest first; all filters are optional and combined with AND
+     * Follow nextCursor from the response to get the next page
+     * Admin-only endpoint
+     */
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<AuditLogPageResponse>> getAuditLogs(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) String entityType,
+            @RequestParam(required = false) String entityId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        log.info("Fetching audit logs (user: {}, action: {}, entity: {}/{}, from: {}, to: {})",
+                userId, action, entityType, entityId, from, to);
+        AuditLogPageResponse page = auditQueryService.getAuditLogs(userId, action, entityType, entityId,
+                from, to, cursor, limit);
+        return ResponseEntity.ok(ApiResponse.success(page));
+    }
+}
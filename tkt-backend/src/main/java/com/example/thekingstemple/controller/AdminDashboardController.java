@@ -1,8 +1,11 @@
 package com.example.thekingstemple.controller;
 
+import com.example.thekingstemple.config.HeavyEndpoint;
 import com.example.thekingstemple.dto.response.ApiResponse;
+import com.example.thekingstemple.dto.response.CampusTrendResponse;
 import com.example.thekingstemple.dto.response.MultiCampusDashboardResponse;
 import com.example.thekingstemple.service.AdminDashboardService;
+import com.example.thekingstemple.service.CrossTenantQueryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -19,6 +22,7 @@ import java.time.LocalDate;
 public class AdminDashboardController {
 
     private final AdminDashboardService adminDashboardService;
+    private final CrossTenantQueryService crossTenantQueryService;
 
     /**
      * Get multi-campus dashboard with arrival stats for all campuses
@@ -28,6 +32,7 @@ public class AdminDashboardController {
      * @return Dashboard data for all 4 campuses
      */
     @GetMapping("/multi-campus")
+    @HeavyEndpoint
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ApiResponse<MultiCampusDashboardResponse>> getMultiCampusDashboard(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
@@ -57,4 +62,23 @@ public class AdminDashboardController {
             throw e; // Re-throw to let GlobalExceptionHandler catch it
         }
     }
+
+    /**
+     * Get daily arrival trends for all campuses over a date range
+     * Admin-only endpoint, served by a single cross-schema query
+     *
+     * @param startDate First day of the range (inclusive)
+     * @param endDate Last day of the range (inclusive)
+     * @return Per-campus daily counts, zero-filled for days without arrivals
+     */
+    @GetMapping("/trends")
+    @HeavyEndpoint
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<CampusTrendResponse>> getArrivalTrends(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+
+        CampusTrendResponse response = crossTenantQueryService.getArrivalTrends(startDate, endDate);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
 }
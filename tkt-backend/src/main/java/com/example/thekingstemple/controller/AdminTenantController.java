@@ -0,0 +1,74 @@
+package com.example.thekingstemple.controller;
+
+import com.example.thekingstemple.dto.request.CreateTenantRequest;
+import com.example.thekingstemple.dto.response.ApiResponse;
+import com.example.thekingstemple.dto.response.TenantResponse;
+import com.example.thekingstemple.service.SharedSchemaService;
+import com.example.thekingstemple.service.TenantProvisioningService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/admin/tenants")
+@RequiredArgsConstructor
+@Slf4j
+public class AdminTenantController {
+
+    private final TenantProvisioningService tenantProvisioningService;
+    private final SharedSchemaService sharedSchemaService;
+
+    /**
+     * List all active campuses
+     * Admin-only endpoint
+     */
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<List<TenantResponse>>> getTenants() {
+        return ResponseEntity.ok(ApiResponse.success(tenantProvisioningService.getTenants()));
+    }
+
+    /**
+     * Provision a new campus (schema, tables and admin user) without a redeploy
+     * Admin-only endpoint
+     */
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<TenantResponse>> createTenant(@Valid @RequestBody CreateTenantRequest request) {
+        log.info("Provisioning campus: {}", request.getId());
+        TenantResponse response = tenantProvisioningService.provision(request.getId(), request.getDisplayName());
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.success("Campus provisioned successfully", response));
+    }
+
+    /**
+     * Deactivate a campus; its data is retained
+     * Admin-only endpoint
+     */
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Void>> deactivateTenant(@PathVariable String id) {
+        tenantProvisioningService.deactivate(id);
+        return ResponseEntity.ok(ApiResponse.success("Campus deactivated successfully", null));
+    }
+
+    /**
+     * Copy a campus schema into the shared-schema tables (rows already copied are skipped)
+     * Returns the number of rows copied per table
+     * Admin-only endpoint
+     */
+    @PostMapping("/{id}/migrate-shared")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Integer>>> migrateToSharedSchema(@PathVariable String id) {
+        log.info("Migrating campus {} into shared schema", id);
+        Map<String, Integer> copied = sharedSchemaService.migrateTenant(id);
+        return ResponseEntity.ok(ApiResponse.success("Campus migrated successfully", copied));
+    }
+}
@@ -5,15 +5,19 @@ import com.example.thekingstemple.dto.request.LogoutRequest;
 import com.example.thekingstemple.dto.request.RefreshTokenRequest;
 import com.example.thekingstemple.dto.response.ApiResponse;
 import com.example.thekingstemple.dto.response.LoginResponse;
+import com.example.thekingstemple.dto.response.TenantResponse;
 import com.example.thekingstemple.service.AuthService;
+import com.example.thekingstemple.service.TenantProvisioningService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.servlet.http.HttpServletRequest;
+import java.util.List;
 
 /**
  * Controller for authentication endpoints
@@ -25,12 +29,28 @@ import jakarta.servlet.http.HttpServletRequest;
 public class AuthController {
 
     private final AuthService authService;
+    private final TenantProvisioningService tenantProvisioningService;
+
+    // X-Forwarded-For entries appended by our own proxies (Cloud Run's front end appends one)
+    @Value("${auth.client-ip.trusted-proxy-hops:1}")
+    private int trustedProxyHops;
+
+    /**
+     * List active campuses for the login screen
+     */
+    @GetMapping("/campuses")
+    public ResponseEntity<ApiResponse<List<TenantResponse>>> getCampuses() {
+        return ResponseEntity.ok(ApiResponse.success(tenantProvisioningService.getTenants()));
+    }
 
     @PostMapping("/login")
-    public ResponseEntity<ApiResponse<LoginResponse>> login(@Valid @RequestBody LoginRequest request) {
+    public ResponseEntity<ApiResponse<LoginResponse>> login(
+            @Valid @RequestBody LoginRequest request,
+            HttpServletRequest httpRequest
+    ) {
         log.info("=== LOGIN REQUEST === Mobile: {}, Campus/TenantId: {}",
                 request.getMobileNumber(), request.getTenantId());
-        LoginResponse response = authService.login(request);
+        LoginResponse response = authService.login(request, getClientIp(httpRequest));
         log.info("=== LOGIN SUCCESS === Campus/TenantId: {}, UserId: {}, Role: {}",
                 request.getTenantId(), response.getUser().getId(), response.getUser().getRole());
         return ResponseEntity.ok(ApiResponse.success("Login successful", response));
@@ -63,6 +83,25 @@ public class AuthController {
         return ResponseEntity.ok(ApiResponse.success("Logout successful", null));
     }
 
+    /**
+     * Resolve the client IP from the X-Forwarded-For entry added by the outermost trusted proxy.
+     * Entries to its left come from the client and can be forged, so only the configured number of
+     * hops is counted from the right; without enough entries the connection address is used.
+     */
+    private String getClientIp(HttpServletRequest request) {
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        if (trustedProxyHops > 0 && StringUtils.hasText(forwardedFor)) {
+            String[] hops = forwardedFor.split(",");
+            if (hops.length >= trustedProxyHops) {
+                String clientIp = hops[hops.length - trustedProxyHops].trim();
+                if (!clientIp.isEmpty()) {
+                    return clientIp;
+                }
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
     /**
      * Extract JWT token from Authorization header
      */
@@ -1,16 +1,31 @@
 package com.example.thekingstemple.controller;
 
+import com.example.thekingstemple.config.HeavyEndpoint;
+import com.example.thekingstemple.dto.request.CreateReportJobRequest;
 import com.example.thekingstemple.dto.response.ApiResponse;
 import com.example.thekingstemple.dto.response.DailyReportResponse;
+import com.example.thekingstemple.dto.response.ReportJobResponse;
 import com.example.thekingstemple.dto.response.VisitResponse;
+import com.example.thekingstemple.service.ReportCacheService;
+import com.example.thekingstemple.service.ReportJobService;
 import com.example.thekingstemple.service.ReportService;
+import com.example.thekingstemple.util.TenantContext;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -24,6 +39,8 @@ import java.util.List;
 public class ReportController {
 
     private final ReportService reportService;
+    private final ReportCacheService reportCacheService;
+    private final ReportJobService reportJobService;
 
     @GetMapping("/daily")
     @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
@@ -35,15 +52,45 @@ public class ReportController {
 
     @GetMapping("/daily/{date}")
     @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
-    public ResponseEntity<ApiResponse<DailyReportResponse>> getDailyReport(
-            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
+    public ResponseEntity<?> getDailyReport(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     ) {
         log.info("Fetching daily report for date: {}", date);
-        DailyReportResponse report = reportService.getDailyReport(date);
-        return ResponseEntity.ok(ApiResponse.success(report));
+
+        // Today's report still changes, always compute it
+        if (!reportCacheService.isCacheable(date)) {
+            DailyReportResponse report = reportService.getDailyReport(date);
+            return ResponseEntity.ok(ApiResponse.success(report));
+        }
+
+        // Past dates are immutable: serve pre-encoded bytes, or 304 if the client already has them
+        String tenantId = TenantContext.getTenantId();
+        ReportCacheService.CachedReport cached = reportCacheService.get(tenantId, date);
+        if (cached == null) {
+            long generation = reportCacheService.generation(tenantId);
+            DailyReportResponse report = reportService.getDailyReportFromPrimary(date);
+            cached = reportCacheService.put(tenantId, date, generation, report);
+        } else {
+            log.debug("Serving cached daily report for date: {}", date);
+        }
+
+        if (cached.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(cached.etag())
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .build();
+        }
+
+        return ResponseEntity.ok()
+                .eTag(cached.etag())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(cached.body());
     }
 
     @GetMapping("/range")
+    @HeavyEndpoint
     @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
     public ResponseEntity<ApiResponse<List<VisitResponse>>> getVisitsInRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
@@ -53,4 +100,45 @@ public class ReportController {
         List<VisitResponse> visits = reportService.getVisitsInRange(startDate, endDate);
         return ResponseEntity.ok(ApiResponse.success(visits));
     }
+
+    @PostMapping("/jobs")
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    public ResponseEntity<ApiResponse<ReportJobResponse>> submitReportJob(
+            @Valid @RequestBody CreateReportJobRequest request,
+            @AuthenticationPrincipal Long userId
+    ) {
+        log.info("User {} submitting report job from {} to {} ({})",
+                userId, request.getStartDate(), request.getEndDate(), request.getFormat());
+        ReportJobResponse job = reportJobService.submit(request, userId);
+        return ResponseEntity
+                .status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success("Report job accepted", job));
+    }
+
+    @GetMapping("/jobs/{id}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    public ResponseEntity<ApiResponse<ReportJobResponse>> getReportJob(
+            @PathVariable String id,
+            @AuthenticationPrincipal Long userId
+    ) {
+        log.debug("Fetching report job: {}", id);
+        ReportJobResponse job = reportJobService.getJob(id, userId);
+        return ResponseEntity.ok(ApiResponse.success(job));
+    }
+
+    @GetMapping("/jobs/{id}/result")
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    public ResponseEntity<InputStreamResource> downloadReportJobResult(
+            @PathVariable String id,
+            @AuthenticationPrincipal Long userId
+    ) throws IOException {
+        log.info("User {} downloading report job result: {}", userId, id);
+        ReportJobService.JobResult result = reportJobService.openResult(id, userId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(result.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(result.fileName()).build().toString())
+                .cacheControl(CacheControl.noStore())
+                .body(new InputStreamResource(result.content()));
+    }
 }
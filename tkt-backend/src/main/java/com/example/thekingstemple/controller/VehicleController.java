@@ -4,7 +4,10 @@ import com.example.thekingstemple.dto.request.CreateVehicleRequest;
 import com.example.thekingstemple.dto.response.ApiResponse;
 import com.example.thekingstemple.dto.response.VehicleResponse;
 import com.example.thekingstemple.entity.VehicleType;
+import com.example.thekingstemple.service.VehiclePhotoService;
 import com.example.thekingstemple.service.VehicleService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
@@ -32,6 +35,7 @@ import java.util.List;
 public class VehicleController {
 
     private final VehicleService vehicleService;
+    private final VehiclePhotoService vehiclePhotoService;
 
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
@@ -115,6 +119,18 @@ public class VehicleController {
         return ResponseEntity.ok(ApiResponse.success(vehicle));
     }
 
+    @GetMapping("/{id}/images/{kind}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    public void getVehicleImage(
+            @PathVariable Long id,
+            @PathVariable String kind,
+            @RequestParam(value = "v", required = false) String version,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        vehiclePhotoService.serve(id, kind, version, request, response);
+    }
+
     @GetMapping("/by-number/{vehicleNumber}")
     @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
     public ResponseEntity<ApiResponse<VehicleResponse>> getVehicleByNumber(
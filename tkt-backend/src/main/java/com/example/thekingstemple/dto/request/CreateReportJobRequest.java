@@ -0,0 +1,30 @@
+package com.example.thekingstemple.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateReportJobRequest {
+
+    @NotNull(message = "Start date is required")
+    private LocalDate startDate;
+
+    @NotNull(message = "End date is required")
+    private LocalDate endDate;
+
+    /**
+     * Result format: JSON (list of visits) or CSV (export). Defaults to JSON.
+     */
+    private Format format = Format.JSON;
+
+    public enum Format {
+        JSON,
+        CSV
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.thekingstemple.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateTenantRequest {
+
+    @NotBlank(message = "Campus id is required")
+    @Pattern(regexp = "^[a-z][a-z0-9_]{1,19}$",
+            message = "Campus id must be 2-20 lowercase letters, digits or underscores, starting with a letter")
+    private String id;
+
+    @NotBlank(message = "Display name is required")
+    @Size(max = 100, message = "Display name must be at most 100 characters")
+    private String displayName;
+}
@@ -22,6 +22,6 @@ public class LoginRequest {
     private String pin;
 
     @NotBlank(message = "Campus is required")
-    @Pattern(regexp = "^(east|west|north|south)$", message = "Campus must be one of: east, west, north, south")
+    @Pattern(regexp = "^[a-z][a-z0-9_]{1,19}$", message = "Invalid campus")
     private String tenantId;
 }
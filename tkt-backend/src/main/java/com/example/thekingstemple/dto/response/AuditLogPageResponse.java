@@ -0,0 +1,18 @@
+package com.example.thekingstemple.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditLogPageResponse {
+    private List<AuditLogResponse> items;
+    private String nextCursor; // Pass as cursor to get the next page; null on the last page
+    private boolean hasMore;
+}
@@ -0,0 +1,23 @@
+package com.example.thekingstemple.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditLogResponse {
+    private Long id;
+    private Long userId;
+    private String action;
+    private String entityType;
+    private String entityId;
+    private String details;
+    private String ipAddress;
+    private LocalDateTime timestamp;
+}
@@ -14,4 +14,5 @@ public class CampusArrivalStats {
     private long bikesCount;
     private long carsCount;
     private long totalCount;
+    private boolean available; // false if the campus failed or timed out
 }
@@ -0,0 +1,20 @@
+package com.example.thekingstemple.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CampusTrendResponse {
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Map<String, List<DailyArrivalCount>> campusTrends; // campus -> one entry per day
+}
@@ -0,0 +1,19 @@
+package com.example.thekingstemple.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyArrivalCount {
+    private LocalDate date;
+    private long bikesCount;
+    private long carsCount;
+    private long totalCount;
+}
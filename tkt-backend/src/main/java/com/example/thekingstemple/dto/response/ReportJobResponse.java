@@ -0,0 +1,38 @@
+package com.example.thekingstemple.dto.response;
+
+import com.example.thekingstemple.dto.request.CreateReportJobRequest;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportJobResponse {
+    private String id;
+    private Status status;
+    private CreateReportJobRequest.Format format;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private int progress; // 0-100
+    private long processedDays;
+    private long totalDays;
+    private long totalVisits;
+    private String resultUrl; // Set once COMPLETED
+    private String error; // Set if FAILED
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+    private LocalDateTime expiresAt;
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.thekingstemple.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TenantResponse {
+    private String id;
+    private String displayName;
+    private boolean active;
+    private LocalDateTime createdAt;
+}
@@ -7,6 +7,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 
 @Data
 @Builder
@@ -20,6 +21,7 @@ public class VehicleResponse {
     private VehicleType vehicleType;
     private String carImageUrl;
     private String keyImageUrl;
+    private Map<String, String> imageUrls; // Kind -> cacheable /vehicles/{id}/images/{kind}?v=... path; renditions only once generated
     private Long createdById;
     private String createdByMobile; // Decrypted
     private LocalDateTime createdAt;
@@ -10,11 +10,13 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
+// Keyset pagination indexes: filter columns first, then (timestamp, id)
 @Table(name = "audit_logs", indexes = {
-        @Index(name = "idx_user_id", columnList = "user_id"),
-        @Index(name = "idx_action", columnList = "action"),
-        @Index(name = "idx_entity_type", columnList = "entity_type"),
-        @Index(name = "idx_timestamp", columnList = "timestamp")
+        @Index(name = "idx_audit_time", columnList = "timestamp, id"),
+        @Index(name = "idx_audit_user_time", columnList = "user_id, timestamp, id"),
+        @Index(name = "idx_audit_user_action_time", columnList = "user_id, action, timestamp, id"),
+        @Index(name = "idx_audit_action_time", columnList = "action, timestamp, id"),
+        @Index(name = "idx_audit_entity_time", columnList = "entity_type, entity_id, timestamp, id")
 })
 @Data
 @Builder
@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -17,12 +19,19 @@ import java.time.LocalDateTime;
         @Index(name = "idx_vehicle_type", columnList = "vehicle_type"),
         @Index(name = "idx_created_by", columnList = "created_by_id")
 })
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Vehicle.CACHE_REGION)
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Vehicle {
 
+    /**
+     * Second-level cache region (see SecondLevelCacheConfig); keys include the tenant identifier
+     */
+    public static final String CACHE_REGION = "vehicles";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -80,6 +89,21 @@ public class Vehicle {
     @Column(length = 500)
     private String keyImageUrl;
 
+    /**
+     * Downscaled JPEG renditions of the car and key images, generated by ImageRenditionService
+     */
+    @Column(length = 500)
+    private String carThumbnailUrl;
+
+    @Column(length = 500)
+    private String carMediumUrl;
+
+    @Column(length = 500)
+    private String keyThumbnailUrl;
+
+    @Column(length = 500)
+    private String keyMediumUrl;
+
     @CreationTimestamp
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -1,45 +1,13 @@
 package com.example.thekingstemple.repository;
 
 import com.example.thekingstemple.entity.AuditLog;
-import com.example.thekingstemple.entity.User;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDateTime;
-import java.util.List;
-
+/**
+ * Audit logs are written by AuditLogService with JDBC batches and read page by page through
+ * {@link AuditLogRepositoryCustom#findPage}, never as unbounded lists
+ */
 @Repository
-public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
-
-    /**
-     * Find audit logs by user
-     */
-    List<AuditLog> findByUserOrderByTimestampDesc(User user);
-
-    /**
-     * Find audit logs by action
-     */
-    List<AuditLog> findByActionOrderByTimestampDesc(String action);
-
-    /**
-     * Find audit logs by entity type
-     */
-    List<AuditLog> findByEntityTypeOrderByTimestampDesc(String entityType);
-
-    /**
-     * Find audit logs in date range
-     */
-    List<AuditLog> findByTimestampBetweenOrderByTimestampDesc(LocalDateTime start, LocalDateTime end);
-
-    /**
-     * Find recent audit logs with pagination
-     */
-    Page<AuditLog> findAllByOrderByTimestampDesc(Pageable pageable);
-
-    /**
-     * Find audit logs by user and action
-     */
-    List<AuditLog> findByUserAndActionOrderByTimestampDesc(User user, String action);
+public interface AuditLogRepository extends JpaRepository<AuditLog, Long>, AuditLogRepositoryCustom {
 }
@@ -0,0 +1,21 @@
+package com.example.thekingstemple.repository;
+
+import com.example.thekingstemple.entity.AuditLog;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface AuditLogRepositoryCustom {
+
+    /**
+     * Find one page of audit logs, newest first, ordered by (timestamp, id)
+     * Null filters are left out of the query. With afterTimestamp/afterId set, only rows older than that
+     * keyset position are returned, so each page is an index range scan regardless of how deep it is.
+     *
+     * @param from inclusive lower bound of timestamp
+     * @param to exclusive upper bound of timestamp
+     */
+    List<AuditLog> findPage(Long userId, String action, String entityType, String entityId,
+                            LocalDateTime from, LocalDateTime to,
+                            LocalDateTime afterTimestamp, Long afterId, int limit);
+}
@@ -0,0 +1,65 @@
+package com.example.thekingstemple.repository;
+
+import com.example.thekingstemple.entity.AuditLog;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the audit log query from the filters actually given, so PostgreSQL plans each combination
+ * against its own composite index (see AuditLog) instead of one generic plan with "IS NULL OR" predicates
+ */
+public class AuditLogRepositoryCustomImpl implements AuditLogRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<AuditLog> findPage(Long userId, String action, String entityType, String entityId,
+                                   LocalDateTime from, LocalDateTime to,
+                                   LocalDateTime afterTimestamp, Long afterId, int limit) {
+        StringBuilder jpql = new StringBuilder("SELECT a FROM AuditLog a WHERE 1 = 1");
+        Map<String, Object> parameters = new LinkedHashMap<>();
+
+        if (userId != null) {
+            jpql.append(" AND a.user.id = :userId");
+            parameters.put("userId", userId);
+        }
+        if (action != null) {
+            jpql.append(" AND a.action = :action");
+            parameters.put("action", action);
+        }
+        if (entityType != null) {
+            jpql.append(" AND a.entityType = :entityType");
+            parameters.put("entityType", entityType);
+        }
+        if (entityId != null) {
+            jpql.append(" AND a.entityId = :entityId");
+            parameters.put("entityId", entityId);
+        }
+        if (from != null) {
+            jpql.append(" AND a.timestamp >= :from");
+            parameters.put("from", from);
+        }
+        if (to != null) {
+            jpql.append(" AND a.timestamp < :to");
+            parameters.put("to", to);
+        }
+        if (afterTimestamp != null && afterId != null) {
+            // Row comparison, so the position is an index condition rather than a filter
+            jpql.append(" AND (a.timestamp, a.id) < (:afterTimestamp, :afterId)");
+            parameters.put("afterTimestamp", afterTimestamp);
+            parameters.put("afterId", afterId);
+        }
+        jpql.append(" ORDER BY a.timestamp DESC, a.id DESC");
+
+        TypedQuery<AuditLog> query = entityManager.createQuery(jpql.toString(), AuditLog.class);
+        parameters.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+}
@@ -2,6 +2,7 @@ package com.example.thekingstemple.repository;
 
 import com.example.thekingstemple.entity.Vehicle;
 import com.example.thekingstemple.entity.VehicleType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -45,4 +46,12 @@ public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
      */
     @Query("SELECT v FROM Vehicle v WHERE v.active = true ORDER BY v.createdAt DESC")
     List<Vehicle> findAllActiveVehicles();
+
+    /**
+     * Find vehicles with a photo but no renditions of it, in id order after the given id (rendition backfill)
+     */
+    @Query("SELECT v FROM Vehicle v WHERE v.id > :afterId"
+            + " AND ((v.carImageUrl IS NOT NULL AND v.carThumbnailUrl IS NULL)"
+            + " OR (v.keyImageUrl IS NOT NULL AND v.keyThumbnailUrl IS NULL)) ORDER BY v.id")
+    List<Vehicle> findWithMissingRenditions(@Param("afterId") Long afterId, Pageable pageable);
 }
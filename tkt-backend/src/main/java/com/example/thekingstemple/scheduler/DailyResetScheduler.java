@@ -1,5 +1,6 @@
 package com.example.thekingstemple.scheduler;
 
+import com.example.thekingstemple.service.AuditPartitionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -18,6 +19,8 @@ public class DailyResetScheduler {
 
     private static final ZoneId IST_ZONE = ZoneId.of("Asia/Kolkata");
 
+    private final AuditPartitionService auditPartitionService;
+
     /**
      * Runs every day at midnight IST
      * Cron format: second minute hour day month day-of-week
@@ -38,8 +41,8 @@ public class DailyResetScheduler {
             // Task 3: Generate summary stats for previous day (optional)
             // reportService.generateDailySummary(now.toLocalDate().minusDays(1));
 
-            // Task 4: Cleanup old audit logs (optional - keep last 90 days)
-            // auditLogService.cleanupOldLogs(90);
+            // Task 4: Create upcoming audit log partitions and drop those past retention
+            auditPartitionService.maintainAll();
 
             log.info("✅ Daily midnight reset completed successfully");
         } catch (Exception e) {
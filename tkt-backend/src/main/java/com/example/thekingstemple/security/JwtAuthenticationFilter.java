@@ -49,18 +49,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     return;
                 }
 
-                // Validate token
-                if (jwtTokenProvider.validateToken(jwt)) {
+                // Validate token (verified once, then served from the claims cache)
+                JwtTokenProvider.TokenClaims claims = jwtTokenProvider.verifyToken(jwt);
+                if (claims != null) {
                     // Only process access tokens for authentication
-                    if (jwtTokenProvider.isAccessToken(jwt)) {
-                        Long userId = jwtTokenProvider.getUserIdFromToken(jwt);
-                        Role role = jwtTokenProvider.getRoleFromToken(jwt);
-                        String tenantId = jwtTokenProvider.getTenantIdFromToken(jwt);
+                    if (claims.isAccessToken()) {
+                        Long userId = claims.userId();
+                        Role role = claims.role();
+                        String tenantId = claims.tenantId();
 
                         // Set tenant context for schema-based multitenancy
                         if (tenantId != null) {
                             TenantContext.setTenantId(tenantId);
-                            log.info("[JWT-FILTER] Set campus/tenant context from JWT: {} for user: {} on request: {} {}",
+                            log.debug("[JWT-FILTER] Set campus/tenant context from JWT: {} for user: {} on request: {} {}",
                                     tenantId, userId, request.getMethod(), request.getRequestURI());
                         } else {
                             log.warn("JWT token does not contain tenantId for user: {}. This may cause database queries to fail.", userId);
@@ -75,7 +76,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                         authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                         SecurityContextHolder.getContext().setAuthentication(authentication);
 
-                        log.info("[JWT-FILTER] Authenticated user: {}, role: {}, campus/tenant: {} for request: {} {}",
+                        log.debug("[JWT-FILTER] Authenticated user: {}, role: {}, campus/tenant: {} for request: {} {}",
                                 userId, role, tenantId, request.getMethod(), request.getRequestURI());
                     }
                 }
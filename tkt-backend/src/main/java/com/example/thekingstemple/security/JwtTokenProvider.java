@@ -1,6 +1,9 @@
 package com.example.thekingstemple.security;
 
 import com.example.thekingstemple.entity.Role;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import lombok.extern.slf4j.Slf4j;
@@ -9,9 +12,14 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.Date;
+import java.util.HexFormat;
 
 /**
  * JWT Token Provider for generating and validating tokens
@@ -24,14 +32,42 @@ public class JwtTokenProvider {
     private final long accessTokenExpiry;
     private final long refreshTokenExpiry;
 
+    // Parsers are immutable and thread-safe, so one instance is shared by all requests
+    private final JwtParser jwtParser;
+
+    // SHA-256 digest of token -> verified claims; entries expire with the token and the size is bounded,
+    // with eviction amortized by Caffeine instead of scanning on the request thread
+    private final Cache<String, TokenClaims> verifiedClaimsCache;
+
     public JwtTokenProvider(
             @Value("${jwt.secret}") String jwtSecret,
             @Value("${jwt.access-token-expiry}") long accessTokenExpiry,
-            @Value("${jwt.refresh-token-expiry}") long refreshTokenExpiry
+            @Value("${jwt.refresh-token-expiry}") long refreshTokenExpiry,
+            @Value("${jwt.claims-cache.max-size:10000}") int claimsCacheMaxSize
     ) {
         this.secretKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
         this.accessTokenExpiry = accessTokenExpiry;
         this.refreshTokenExpiry = refreshTokenExpiry;
+        this.jwtParser = Jwts.parser().verifyWith(secretKey).build();
+        this.verifiedClaimsCache = Caffeine.newBuilder()
+                .maximumSize(claimsCacheMaxSize)
+                .expireAfter(new Expiry<String, TokenClaims>() {
+                    @Override
+                    public long expireAfterCreate(String key, TokenClaims claims, long currentTime) {
+                        return Math.max(0, Duration.between(Instant.now(), claims.expiresAt()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, TokenClaims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, TokenClaims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
 
     /**
@@ -70,72 +106,82 @@ public class JwtTokenProvider {
                 .compact();
     }
 
+    /**
+     * Verify a token once and return its claims.
+     * Verified claims are cached by token digest until the token expires, so repeat requests
+     * with the same token cost one hash and one map lookup instead of a signature verification.
+     *
+     * @throws JwtException if the token is malformed, has an invalid signature or is expired
+     */
+    public TokenClaims getVerifiedClaims(String token) {
+        if (token == null || token.isBlank()) {
+            throw new IllegalArgumentException("JWT token is empty");
+        }
+
+        String key = digest(token);
+        TokenClaims cached = verifiedClaimsCache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+        TokenClaims tokenClaims = new TokenClaims(
+                Long.parseLong(claims.getSubject()),
+                claims.get("role", String.class) != null ? Role.valueOf(claims.get("role", String.class)) : null,
+                claims.get("tenantId", String.class),
+                claims.get("mobileHash", String.class),
+                claims.get("type", String.class),
+                claims.getExpiration().toInstant()
+        );
+        verifiedClaimsCache.put(key, tokenClaims);
+        return tokenClaims;
+    }
+
+    /**
+     * Verify a token and return its claims, or null if the token is invalid
+     */
+    public TokenClaims verifyToken(String token) {
+        try {
+            return getVerifiedClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.error("Invalid JWT token: {}", e.getMessage());
+            return null;
+        }
+    }
+
     /**
      * Get user ID from token
      */
     public Long getUserIdFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-
-        return Long.parseLong(claims.getSubject());
+        return getVerifiedClaims(token).userId();
     }
 
     /**
      * Get role from token
      */
     public Role getRoleFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-
-        return Role.valueOf(claims.get("role", String.class));
+        return getVerifiedClaims(token).role();
     }
 
     /**
      * Get mobile hash from token
      */
     public String getMobileHashFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-
-        return claims.get("mobileHash", String.class);
+        return getVerifiedClaims(token).mobileHash();
     }
 
     /**
      * Get tenant ID from token
      */
     public String getTenantIdFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-
-        return claims.get("tenantId", String.class);
+        return getVerifiedClaims(token).tenantId();
     }
 
     /**
      * Validate token
      */
     public boolean validateToken(String token) {
-        try {
-            Jwts.parser()
-                    .verifyWith(secretKey)
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            log.error("Invalid JWT token: {}", e.getMessage());
-            return false;
-        }
+        return verifyToken(token) != null;
     }
 
     /**
@@ -143,13 +189,7 @@ public class JwtTokenProvider {
      */
     public boolean isAccessToken(String token) {
         try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(secretKey)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-
-            return "ACCESS".equals(claims.get("type", String.class));
+            return getVerifiedClaims(token).isAccessToken();
         } catch (JwtException e) {
             return false;
         }
@@ -160,13 +200,7 @@ public class JwtTokenProvider {
      */
     public boolean isRefreshToken(String token) {
         try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(secretKey)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-
-            return "REFRESH".equals(claims.get("type", String.class));
+            return getVerifiedClaims(token).isRefreshToken();
         } catch (JwtException e) {
             return false;
         }
@@ -177,14 +211,7 @@ public class JwtTokenProvider {
      */
     public LocalDateTime getExpirationFromToken(String token) {
         try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(secretKey)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-
-            Date expiration = claims.getExpiration();
-            return expiration.toInstant()
+            return getVerifiedClaims(token).expiresAt()
                     .atZone(ZoneId.systemDefault())
                     .toLocalDateTime();
         } catch (JwtException e) {
@@ -192,4 +219,31 @@ public class JwtTokenProvider {
             return LocalDateTime.now();
         }
     }
+
+    /**
+     * SHA-256 digest of a token, used as cache key so raw tokens are not kept in memory
+     */
+    private String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 algorithm not available", e);
+        }
+    }
+
+    /**
+     * Claims of a verified token
+     */
+    public record TokenClaims(Long userId, Role role, String tenantId, String mobileHash, String type,
+                              Instant expiresAt) {
+
+        public boolean isAccessToken() {
+            return "ACCESS".equals(type);
+        }
+
+        public boolean isRefreshToken() {
+            return "REFRESH".equals(type);
+        }
+    }
 }
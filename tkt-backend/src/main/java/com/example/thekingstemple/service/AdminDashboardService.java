@@ -7,13 +7,23 @@ import com.example.thekingstemple.repository.VisitRepository;
 import com.example.thekingstemple.util.TenantContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Service
 @RequiredArgsConstructor
@@ -21,103 +31,133 @@ import java.util.Map;
 public class AdminDashboardService {
 
     private final VisitRepository visitRepository;
+    private final CrossTenantQueryService crossTenantQueryService;
+    private final TenantRegistry tenantRegistry;
+    private final LiveArrivalCounterService liveArrivalCounterService;
+    private final PlatformTransactionManager transactionManager;
+
+    @Qualifier("dashboardExecutor")
+    private final ThreadPoolTaskExecutor dashboardExecutor;
+
+    @Value("${admin.dashboard.campus-timeout-ms:3000}")
+    private long campusTimeoutMs;
+
+    // "aggregate" = single cross-schema query, "fan-out" = one concurrent query per campus
+    @Value("${admin.dashboard.strategy:aggregate}")
+    private String strategy;
 
     /**
      * Get arrival stats for all campuses for a specific date
-     * This method switches between tenant contexts to query each campus
-     * Note: No @Transactional here to allow each campus query to use its own transaction
+     * For today, live in-memory counters are used when available.
+     * By default all campuses are counted in one cross-schema query; if that fails the
+     * per-campus fan-out is used instead.
+     * In fan-out mode campuses are queried concurrently; each task binds its own tenant and runs in its own
+     * read-only transaction. A campus that fails or misses its deadline is reported as unavailable
+     * instead of stalling the whole response.
      */
     public MultiCampusDashboardResponse getMultiCampusDashboard(LocalDate date) {
         log.info("=== Starting multi-campus dashboard fetch for date: {} ===", date);
 
-        // Store the original tenant context
-        String originalTenant = TenantContext.getTenantId();
-        log.debug("Original tenant context: {}", originalTenant);
-
-        try {
-            Map<String, CampusArrivalStats> campusStatsMap = new LinkedHashMap<>();
-
-            // Define the campuses in order
-            String[] campuses = {"east", "west", "north", "south"};
-
-            // Query each campus
-            for (String campus : campuses) {
-                log.info("Processing campus: {}", campus);
-                try {
-                    // Query this campus (uses a new transaction for each campus)
-                    CampusArrivalStats stats = queryCampusStats(campus, date);
-                    campusStatsMap.put(campus, stats);
-
-                    log.info("Campus {} - Bikes: {}, Cars: {}, Total: {}",
-                             campus, stats.getBikesCount(), stats.getCarsCount(), stats.getTotalCount());
-
-                } catch (Exception e) {
-                    log.error("ERROR fetching data for campus: {} - Exception type: {}, Message: {}",
-                             campus, e.getClass().getName(), e.getMessage(), e);
-                    // Add empty stats for this campus in case of error
-                    CampusArrivalStats emptyStats = CampusArrivalStats.builder()
-                            .campusName(campus.substring(0, 1).toUpperCase() + campus.substring(1))
-                            .bikesCount(0)
-                            .carsCount(0)
-                            .totalCount(0)
-                            .build();
-                    campusStatsMap.put(campus, emptyStats);
-                }
-            }
-
-            log.info("Building final response with {} campus stats", campusStatsMap.size());
-            MultiCampusDashboardResponse response = MultiCampusDashboardResponse.builder()
+        // Today's numbers are answered from the in-memory counters when they are in sync
+        Map<String, CampusArrivalStats> liveStats = liveArrivalCounterService.getLiveStats(date);
+        if (liveStats != null) {
+            return MultiCampusDashboardResponse.builder()
                     .date(date)
-                    .campusStats(campusStatsMap)
+                    .campusStats(liveStats)
                     .build();
+        }
 
-            log.info("=== Successfully completed multi-campus dashboard fetch ===");
-            return response;
-
-        } catch (Exception e) {
-            log.error("FATAL ERROR in getMultiCampusDashboard - Exception type: {}, Message: {}",
-                     e.getClass().getName(), e.getMessage(), e);
-            throw e;
-        } finally {
-            // Restore the original tenant context
-            log.debug("Restoring original tenant context: {}", originalTenant);
-            if (originalTenant != null) {
-                TenantContext.setTenantId(originalTenant);
-            } else {
-                TenantContext.clear();
+        if ("aggregate".equalsIgnoreCase(strategy)) {
+            try {
+                return MultiCampusDashboardResponse.builder()
+                        .date(date)
+                        .campusStats(crossTenantQueryService.getArrivalStats(date))
+                        .build();
+            } catch (DataAccessException e) {
+                log.warn("Cross-campus aggregate query failed, falling back to per-campus fan-out: {}", e.getMessage());
             }
-            log.debug("Tenant context restored. Current tenant: {}", TenantContext.getTenantId());
         }
+
+        List<String> campuses = tenantRegistry.getTenantIds();
+
+        // Fan out: one task per campus, each with its own deadline
+        Map<String, CompletableFuture<CampusArrivalStats>> futures = new LinkedHashMap<>();
+        for (String campus : campuses) {
+            futures.put(campus, submitCampusQuery(campus, date));
+        }
+
+        Map<String, CampusArrivalStats> campusStatsMap = new LinkedHashMap<>();
+        futures.forEach((campus, future) -> campusStatsMap.put(campus, future.join()));
+
+        log.info("=== Completed multi-campus dashboard fetch for {} campuses ===", campusStatsMap.size());
+        return MultiCampusDashboardResponse.builder()
+                .date(date)
+                .campusStats(campusStatsMap)
+                .build();
     }
 
     /**
-     * Query stats for a single campus in its own transaction
-     * REQUIRES_NEW forces a new transaction/connection for each call
+     * Submit the stats query for a single campus with a per-campus deadline
      */
-    @Transactional(readOnly = true, propagation = Propagation.REQUIRES_NEW)
-    public CampusArrivalStats queryCampusStats(String campus, LocalDate date) {
-        // Switch to the campus schema
-        log.debug("Switching to tenant: {}", campus);
-        TenantContext.setTenantId(campus);
-        log.debug("Current tenant after switch: {}", TenantContext.getTenantId());
-
-        // Get counts for bikes and cars
-        log.debug("Querying bikes count for campus: {}, date: {}", campus, date);
-        long bikesCount = visitRepository.countByVisitDateAndVehicleType(date, VehicleType.BIKE);
-        log.debug("Bikes count: {}", bikesCount);
-
-        log.debug("Querying cars count for campus: {}, date: {}", campus, date);
-        long carsCount = visitRepository.countByVisitDateAndVehicleType(date, VehicleType.CAR);
-        log.debug("Cars count: {}", carsCount);
+    private CompletableFuture<CampusArrivalStats> submitCampusQuery(String campus, LocalDate date) {
+        try {
+            return CompletableFuture
+                    .supplyAsync(() -> queryCampusStats(campus, date), dashboardExecutor)
+                    .orTimeout(campusTimeoutMs, TimeUnit.MILLISECONDS)
+                    .exceptionally(e -> {
+                        Throwable cause = e.getCause() != null ? e.getCause() : e;
+                        if (cause instanceof TimeoutException) {
+                            log.warn("Campus {} did not respond within {} ms", campus, campusTimeoutMs);
+                        } else {
+                            log.error("ERROR fetching data for campus: {} - Exception type: {}, Message: {}",
+                                    campus, cause.getClass().getName(), cause.getMessage(), cause);
+                        }
+                        return unavailableStats(campus);
+                    });
+        } catch (RejectedExecutionException e) {
+            log.warn("Dashboard executor saturated, skipping campus: {}", campus);
+            return CompletableFuture.completedFuture(unavailableStats(campus));
+        }
+    }
 
-        long totalCount = bikesCount + carsCount;
+    /**
+     * Query stats for a single campus in its own read-only transaction
+     * Runs on a dashboard worker thread, so switching the tenant here never affects the caller
+     */
+    private CampusArrivalStats queryCampusStats(String campus, LocalDate date) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // Transaction timeout becomes the JDBC query timeout, so a slow campus stops consuming a connection
+        transactionTemplate.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(campusTimeoutMs)));
+
+        // Tenant must be bound before the transaction starts so Hibernate picks the campus schema
+        return TenantContext.callWithTenant(campus, () -> transactionTemplate.execute(status -> {
+            long bikesCount = visitRepository.countByVisitDateAndVehicleType(date, VehicleType.BIKE);
+            long carsCount = visitRepository.countByVisitDateAndVehicleType(date, VehicleType.CAR);
+
+            log.debug("Campus {} - Bikes: {}, Cars: {}", campus, bikesCount, carsCount);
+
+            return CampusArrivalStats.builder()
+                    .campusName(tenantRegistry.getDisplayName(campus))
+                    .bikesCount(bikesCount)
+                    .carsCount(carsCount)
+                    .totalCount(bikesCount + carsCount)
+                    .available(true)
+                    .build();
+        }));
+    }
 
-        // Build stats for this campus
+    /**
+     * Empty stats for a campus that failed or timed out
+     */
+    private CampusArrivalStats unavailableStats(String campus) {
         return CampusArrivalStats.builder()
-                .campusName(campus.substring(0, 1).toUpperCase() + campus.substring(1)) // Capitalize
-                .bikesCount(bikesCount)
-                .carsCount(carsCount)
-                .totalCount(totalCount)
+                .campusName(tenantRegistry.getDisplayName(campus))
+                .bikesCount(0)
+                .carsCount(0)
+                .totalCount(0)
+                .available(false)
                 .build();
     }
 }
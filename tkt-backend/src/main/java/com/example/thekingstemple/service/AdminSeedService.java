@@ -0,0 +1,68 @@
+package com.example.thekingstemple.service;
+
+import com.example.thekingstemple.entity.Role;
+import com.example.thekingstemple.entity.User;
+import com.example.thekingstemple.repository.UserRepository;
+import com.example.thekingstemple.util.TenantContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+/**
+ * Seeds the default admin user into a campus schema
+ * Used at startup for every registered campus and when a new campus is provisioned
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AdminSeedService {
+
+    private final UserRepository userRepository;
+    private final EncryptionService encryptionService;
+    private final PasswordEncoder passwordEncoder;
+
+    @Value("${admin.seed.mobile}")
+    private String adminMobile;
+
+    @Value("${admin.seed.pin}")
+    private String adminPin;
+
+    /**
+     * Create the admin user for a campus if it does not exist yet
+     * The caller's tenant context is restored afterwards.
+     */
+    public void seedAdmin(String tenantId) {
+        TenantContext.runWithTenant(tenantId, () -> {
+            log.info("[ADMIN-SEED] Set tenant context to: {} for admin user seeding", tenantId);
+
+            // Hash the admin mobile
+            String mobileHash = encryptionService.hash(adminMobile);
+
+            // Check if admin exists for this tenant
+            if (!userRepository.existsByMobileHashAndTenantId(mobileHash, tenantId)) {
+                // Encrypt and hash mobile
+                EncryptionService.EncryptedData encryptedMobile = encryptionService.encryptAndHash(adminMobile);
+
+                // Hash PIN with BCrypt
+                String pinHash = passwordEncoder.encode(adminPin);
+
+                // Create admin user for this tenant
+                User admin = User.builder()
+                        .tenantId(tenantId)
+                        .mobileNumber(encryptedMobile.encrypted())
+                        .mobileHash(encryptedMobile.hash())
+                        .pinHash(pinHash)
+                        .role(Role.ADMIN)
+                        .active(true)
+                        .build();
+
+                userRepository.save(admin);
+                log.info("✅ Admin user seeded for campus '{}' with mobile: {}", tenantId, adminMobile);
+            } else {
+                log.info("Admin user for campus '{}' already exists, skipping seed", tenantId);
+            }
+        });
+    }
+}
@@ -10,6 +10,7 @@ import com.example.thekingstemple.exception.ResourceNotFoundException;
 import com.example.thekingstemple.repository.UserRepository;
 import com.example.thekingstemple.repository.VehicleRepository;
 import com.example.thekingstemple.repository.VisitRepository;
+import com.example.thekingstemple.util.TenantContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -35,6 +36,7 @@ public class AttendanceService {
     private final VehicleService vehicleService;
     private final EncryptionService encryptionService;
     private final AuditLogService auditLogService;
+    private final LiveArrivalCounterService liveArrivalCounterService;
 
     private static final ZoneId IST_ZONE = ZoneId.of("Asia/Kolkata");
 
@@ -69,6 +71,9 @@ public class AttendanceService {
         Visit savedVisit = visitRepository.save(visit);
         log.info("Arrival marked for vehicle: {} by user: {}", vehicleNumber, markedByUserId);
 
+        // Live dashboard counter, applied after commit
+        liveArrivalCounterService.recordArrival(TenantContext.getTenantId(), today, vehicle.getVehicleType());
+
         // Audit log
         auditLogService.log(
                 markedByUserId,
@@ -1,57 +1,192 @@
 package com.example.thekingstemple.service;
 
-import com.example.thekingstemple.entity.AuditLog;
-import com.example.thekingstemple.entity.User;
-import com.example.thekingstemple.repository.AuditLogRepository;
-import com.example.thekingstemple.repository.UserRepository;
+import com.example.thekingstemple.util.MappedSpool;
+import com.example.thekingstemple.util.MpscRingBuffer;
+import com.example.thekingstemple.util.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * Service for audit logging
+ * Events are captured with their campus on the calling thread and put into a lock-free ring buffer;
+ * a single writer thread drains it every flush interval (or as soon as a batch is full), groups events
+ * by campus schema and inserts them with JDBC batches. The user is stored by id, never loaded.
+ * With the spool enabled (off by default; it needs a persistent audit.spool.dir), the writer only appends events to a memory-mapped spool on local disk and a
+ * relay thread replays the spool into audit_logs, retrying while the database is unavailable. Events
+ * survive restarts and slow database periods; after a crash they are delivered at least once.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AuditLogService {
 
-    private final AuditLogRepository auditLogRepository;
-    private final UserRepository userRepository;
+    private static final String DEFAULT_SCHEMA = "public";
+    private static final byte SPOOL_FORMAT_VERSION = 1;
+    private static final long MAX_RETRY_BACKOFF_MS = 30_000;
+    private static final String INSERT_COLUMNS =
+            "(user_id, action, entity_type, entity_id, details, ip_address, timestamp) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final TenantRegistry tenantRegistry;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${audit.buffer.capacity:8192}")
+    private int bufferCapacity;
+
+    @Value("${audit.buffer.batch-size:200}")
+    private int batchSize;
+
+    @Value("${audit.buffer.flush-interval-ms:500}")
+    private long flushIntervalMs;
+
+    @Value("${audit.buffer.offer-timeout-ms:50}")
+    private long offerTimeoutMs;
+
+    @Value("${multitenancy.mode:schema}")
+    private String mode;
+
+    @Value("${audit.spool.enabled:false}")
+    private boolean spoolEnabled;
+
+    @Value("${audit.spool.dir:}")
+    private String spoolDir;
+
+    @Value("${audit.spool.segment-size-mb:16}")
+    private int spoolSegmentSizeMb;
+
+    @Value("${audit.spool.max-segments:8}")
+    private int spoolMaxSegments;
+
+    private MpscRingBuffer<AuditEvent> buffer;
+    private MappedSpool spool;
+    private Thread writerThread;
+    private Thread relayThread;
+    private volatile boolean running;
+
+    private Counter writtenCounter;
+    private Counter droppedCounter;
+    private Counter failedCounter;
+    private Timer flushTimer;
+
+    @PostConstruct
+    public void init() {
+        buffer = new MpscRingBuffer<>(bufferCapacity);
+
+        writtenCounter = Counter.builder("audit.events.written")
+                .description("Audit events inserted").register(meterRegistry);
+        droppedCounter = Counter.builder("audit.events.dropped")
+                .description("Audit events dropped because the buffer stayed full").register(meterRegistry);
+        failedCounter = Counter.builder("audit.events.failed")
+                .description("Audit events lost to failed batch inserts").register(meterRegistry);
+        flushTimer = Timer.builder("audit.flush.time")
+                .description("Time to insert one campus batch").register(meterRegistry);
+        Gauge.builder("audit.buffer.size", buffer, MpscRingBuffer::size)
+                .description("Audit events waiting to be written").register(meterRegistry);
+
+        if (spoolEnabled) {
+            // A spool on an ephemeral or in-memory filesystem loses events and eats memory, so no default location
+            if (spoolDir == null || spoolDir.isBlank()) {
+                throw new IllegalStateException("audit.spool.enabled requires audit.spool.dir (AUDIT_SPOOL_DIR) "
+                        + "pointing to a persistent volume");
+            }
+            openSpool();
+        }
+
+        running = true;
+        writerThread = new Thread(this::writeLoop, "audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        if (spool != null) {
+            relayThread = new Thread(this::relayLoop, "audit-relay");
+            relayThread.setDaemon(true);
+            relayThread.start();
+        }
+        log.info("Audit writer started (buffer {}, batch {}, flush every {} ms, spool {})",
+                buffer.capacity(), batchSize, flushIntervalMs, spool != null ? spoolDir : "off");
+    }
+
+    private void openSpool() {
+        try {
+            // Opening recovers the spool: a torn last record is cut off and reading resumes at the checkpoint
+            spool = new MappedSpool(Path.of(spoolDir), spoolSegmentSizeMb * 1024 * 1024, spoolMaxSegments);
+            Gauge.builder("audit.spool.pending.bytes", spool, MappedSpool::pendingBytes)
+                    .description("Spooled audit bytes not yet written to the database").register(meterRegistry);
+            Gauge.builder("audit.spool.segments", spool, MappedSpool::segmentCount)
+                    .description("Audit spool segment files on disk").register(meterRegistry);
+        } catch (IOException | RuntimeException e) {
+            // Without a usable spool directory, keep auditing straight to the database
+            log.error("Cannot open audit spool in {}, writing audit events directly: {}", spoolDir, e.getMessage(), e);
+            spool = null;
+        }
+    }
 
     /**
-     * Create audit log asynchronously
+     * Record an audit event for the current campus; returns without touching the database
      */
-    @Async
-    @Transactional
     public void log(Long userId, String action, String entityType, String entityId, String details, String ipAddress) {
-        try {
-            User user = userId != null ? userRepository.findById(userId).orElse(null) : null;
+        AuditEvent event = new AuditEvent(TenantContext.getTenantId(), userId, action, entityType, entityId,
+                details, ipAddress, LocalDateTime.now());
 
-            AuditLog auditLog = AuditLog.builder()
-                    .user(user)
-                    .action(action)
-                    .entityType(entityType)
-                    .entityId(entityId)
-                    .details(details)
-                    .ipAddress(ipAddress)
-                    .build();
-
-            auditLogRepository.save(auditLog);
-            log.debug("Audit log created: {} - {} - {}", action, entityType, entityId);
-        } catch (Exception e) {
-            log.error("Failed to create audit log", e);
-            // Don't throw exception - audit logging should not break the main flow
+        if (buffer.offer(event)) {
+            if (buffer.size() >= batchSize) {
+                LockSupport.unpark(writerThread);
+            }
+            return;
         }
+
+        // Full: wake the writer and give it a moment to make room before giving up on the event
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(offerTimeoutMs);
+        do {
+            LockSupport.unpark(writerThread);
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+            if (buffer.offer(event)) {
+                return;
+            }
+        } while (System.nanoTime() < deadline);
+
+        droppedCounter.increment();
+        log.error("Audit buffer full, dropping event: {} - {} - {}", action, entityType, entityId);
     }
 
     /**
      * Simplified log method without IP
      */
-    @Async
-    @Transactional
     public void log(Long userId, String action, String entityType, String entityId, String details) {
         log(userId, action, entityType, entityId, details, null);
     }
@@ -59,9 +194,245 @@ public class AuditLogService {
     /**
      * Log without entity details
      */
-    @Async
-    @Transactional
     public void log(Long userId, String action) {
         log(userId, action, null, null, null, null);
     }
+
+    private void writeLoop() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (running || buffer.size() > 0) {
+            if (running && buffer.size() < batchSize) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushIntervalMs));
+            }
+            while (buffer.drain(batch::add, batchSize) > 0) {
+                if (spool != null) {
+                    append(batch);
+                } else {
+                    write(batch);
+                }
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Append a drained batch to the spool and flush it to disk, then wake the relay
+     */
+    private void append(List<AuditEvent> events) {
+        int dropped = 0;
+        for (AuditEvent event : events) {
+            try {
+                if (!spool.append(encode(event))) {
+                    dropped++;
+                }
+            } catch (IOException e) {
+                dropped++;
+                log.error("Failed to spool audit event {} - {}: {}", event.action(), event.entityId(), e.getMessage());
+            }
+        }
+        spool.force();
+        LockSupport.unpark(relayThread);
+
+        if (dropped > 0) {
+            droppedCounter.increment(dropped);
+            log.error("Audit spool full, dropped {} events ({} bytes pending)", dropped, spool.pendingBytes());
+        }
+    }
+
+    /**
+     * Replay spooled events into the database; the checkpoint only moves once a batch is written
+     */
+    private void relayLoop() {
+        long backoffMs = flushIntervalMs;
+        MappedSpool.Batch batch = null;
+        List<AuditEvent> pending = null;
+        while (running) {
+            try {
+                if (pending == null) {
+                    batch = spool.read(batchSize);
+                    if (batch.isEmpty()) {
+                        if (!batch.end().equals(spool.committed())) {
+                            spool.commit(batch.end());
+                        }
+                        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushIntervalMs));
+                        continue;
+                    }
+                    pending = new ArrayList<>(batch.records().size());
+                    for (byte[] record : batch.records()) {
+                        try {
+                            pending.add(decode(record));
+                        } catch (IOException e) {
+                            // CRC matched but the record is unreadable (e.g. written by another version)
+                            failedCounter.increment();
+                            log.error("Skipping unreadable audit spool record: {}", e.getMessage());
+                        }
+                    }
+                }
+
+                if (!write(pending)) {
+                    // Database unavailable: retry what is left of the batch, which stays in the spool meanwhile
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(backoffMs));
+                    backoffMs = Math.min(backoffMs * 2, MAX_RETRY_BACKOFF_MS);
+                    continue;
+                }
+                backoffMs = flushIntervalMs;
+                pending = null;
+                spool.commit(batch.end());
+            } catch (IOException e) {
+                log.error("Audit spool relay failed: {}", e.getMessage(), e);
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushIntervalMs));
+            }
+        }
+    }
+
+    /**
+     * Insert a batch, one JDBC batch per campus schema.
+     * Campus batches that fail for good (bad data, missing table) are counted and skipped; if the database
+     * is unreachable the remaining campuses are kept in the list and false is returned so they can be retried.
+     */
+    private boolean write(List<AuditEvent> events) {
+        Map<String, List<AuditEvent>> byTenant = new LinkedHashMap<>();
+        for (AuditEvent event : events) {
+            byTenant.computeIfAbsent(tenantKey(event), key -> new ArrayList<>()).add(event);
+        }
+
+        Iterator<Map.Entry<String, List<AuditEvent>>> iterator = byTenant.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, List<AuditEvent>> entry = iterator.next();
+            String tenantId = entry.getKey();
+            List<AuditEvent> tenantEvents = entry.getValue();
+            try {
+                flushTimer.record(() -> insert(tenantId, tenantEvents));
+                writtenCounter.increment(tenantEvents.size());
+                log.debug("Wrote {} audit events for tenant: {}", tenantEvents.size(), tenantId);
+            } catch (Exception e) {
+                if (spool != null && isTransient(e)) {
+                    // Written campuses are removed, so a retry does not insert them twice
+                    log.warn("Database unavailable for audit events of tenant {}, will retry: {}", tenantId, e.getMessage());
+                    events.removeIf(event -> !byTenant.containsKey(tenantKey(event)));
+                    return false;
+                }
+                // Don't rethrow - audit logging should not stop the writer
+                failedCounter.increment(tenantEvents.size());
+                log.error("Failed to write {} audit events for tenant {}: {}", tenantEvents.size(), tenantId, e.getMessage(), e);
+            }
+            iterator.remove();
+        }
+        return true;
+    }
+
+    private String tenantKey(AuditEvent event) {
+        return event.tenantId() != null ? event.tenantId() : DEFAULT_SCHEMA;
+    }
+
+    private boolean isTransient(Exception e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof TransactionException;
+    }
+
+    private void insert(String tenantId, List<AuditEvent> events) {
+        // Schema names are concatenated into SQL, so they must come from the whitelist
+        if (!DEFAULT_SCHEMA.equals(tenantId) && !(TenantRegistry.isValidTenantId(tenantId) && tenantRegistry.isTenant(tenantId))) {
+            throw new IllegalStateException("Invalid tenant schema: " + tenantId);
+        }
+        boolean shared = SharedSchemaService.SHARED_SCHEMA.equals(mode) && !DEFAULT_SCHEMA.equals(tenantId);
+        String sql = "INSERT INTO " + (shared ? SharedSchemaService.SHARED_SCHEMA : tenantId) + ".audit_logs " + INSERT_COLUMNS;
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transactionTemplate.executeWithoutResult(status -> {
+            if (shared) {
+                // tenant_id defaults to this setting and row-level security checks it
+                jdbcTemplate.queryForObject("SELECT set_config('app.tenant_id', ?, true)", String.class, tenantId);
+            }
+            jdbcTemplate.batchUpdate(sql, events, events.size(), (ps, event) -> {
+                ps.setObject(1, event.userId(), Types.BIGINT);
+                ps.setString(2, event.action());
+                ps.setString(3, event.entityType());
+                ps.setString(4, event.entityId());
+                ps.setString(5, event.details());
+                ps.setString(6, event.ipAddress());
+                ps.setTimestamp(7, Timestamp.valueOf(event.timestamp()));
+            });
+        });
+    }
+
+    /**
+     * Stop waiting for the flush interval and write everything still buffered
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writerThread);
+        writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        if (buffer.size() > 0) {
+            log.warn("Audit writer stopped with {} events still buffered", buffer.size());
+        }
+        if (spool != null) {
+            // Whatever the relay has not written yet is replayed from the spool on the next start
+            LockSupport.unpark(relayThread);
+            relayThread.join(TimeUnit.SECONDS.toMillis(5));
+            spool.close();
+            if (spool.pendingBytes() > 0) {
+                log.info("Audit relay stopped with {} bytes left in the spool", spool.pendingBytes());
+            }
+        }
+    }
+
+    /**
+     * Spool record: format version, campus, user id, strings and the timestamp as UTC epoch second + nanos
+     */
+    private byte[] encode(AuditEvent event) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(SPOOL_FORMAT_VERSION);
+        writeString(out, event.tenantId());
+        out.writeBoolean(event.userId() != null);
+        out.writeLong(event.userId() != null ? event.userId() : 0);
+        writeString(out, event.action());
+        writeString(out, event.entityType());
+        writeString(out, event.entityId());
+        writeString(out, event.details());
+        writeString(out, event.ipAddress());
+        out.writeLong(event.timestamp().toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(event.timestamp().getNano());
+        return bytes.toByteArray();
+    }
+
+    private AuditEvent decode(byte[] record) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+        byte version = in.readByte();
+        if (version != SPOOL_FORMAT_VERSION) {
+            throw new IOException("Unknown audit spool record version " + version);
+        }
+        String tenantId = readString(in);
+        boolean hasUser = in.readBoolean();
+        long userId = in.readLong();
+        return new AuditEvent(tenantId, hasUser ? userId : null, readString(in), readString(in), readString(in),
+                readString(in), readString(in), LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC));
+    }
+
+    private void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        return new String(in.readNBytes(length), StandardCharsets.UTF_8);
+    }
+
+    private record AuditEvent(String tenantId, Long userId, String action, String entityType, String entityId,
+                              String details, String ipAddress, LocalDateTime timestamp) {
+    }
 }
@@ -0,0 +1,243 @@
+package com.example.thekingstemple.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Monthly range partitions of audit_logs.
+ * Each campus' audit_logs is partitioned by timestamp month (audit_logs_y2026m01, ...). Partitions for
+ * the coming months are created ahead of time, and retention drops whole partitions that lie entirely
+ * before the retention window, so cleanup never deletes rows or bloats the table.
+ * An existing unpartitioned audit_logs is converted once, keeping its rows and id sequence.
+ * In shared-schema mode the campus partition shared.audit_logs_<campus> is sub-partitioned the same way.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AuditPartitionService {
+
+    private static final ZoneId IST_ZONE = ZoneId.of("Asia/Kolkata");
+    private static final Pattern PARTITION_SUFFIX = Pattern.compile("_y(\\d{4})m(\\d{2})$");
+
+    // Keyset pagination indexes of /admin/audit (name -> columns), see AuditLog
+    private static final Map<String, String> INDEXES = Map.of(
+            "idx_audit_time", "timestamp, id",
+            "idx_audit_user_time", "user_id, timestamp, id",
+            "idx_audit_user_action_time", "user_id, action, timestamp, id",
+            "idx_audit_action_time", "action, timestamp, id",
+            "idx_audit_entity_time", "entity_type, entity_id, timestamp, id");
+    // Single-column indexes replaced by the ones above
+    private static final List<String> LEGACY_INDEXES = List.of("idx_user_id", "idx_action", "idx_entity_type", "idx_timestamp");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final TenantRegistry tenantRegistry;
+    private final SharedSchemaService sharedSchemaService;
+
+    @Value("${audit.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${audit.retention-days:0}")
+    private int retentionDays;
+
+    @PostConstruct
+    public void init() {
+        // New campuses need their current partitions before the first audit event arrives
+        tenantRegistry.addChangeListener(tenantIds -> maintainAll());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void maintainOnStartup() {
+        maintainAll();
+    }
+
+    /**
+     * Create upcoming partitions and drop expired ones for every campus
+     * Called on startup, when campuses change and from the midnight scheduler.
+     */
+    public void maintainAll() {
+        for (String tenantId : tenantRegistry.getTenantIds()) {
+            try {
+                maintain(tenantId);
+            } catch (Exception e) {
+                // One campus must not stop maintenance of the others
+                log.error("Audit partition maintenance failed for campus {}: {}", tenantId, e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Create upcoming partitions and drop expired ones for a campus
+     */
+    public void maintain(String tenantId) {
+        // Tenant id is used in table names, so it must pass validation before anything else
+        if (!TenantRegistry.isValidTenantId(tenantId)) {
+            throw new IllegalArgumentException("Invalid campus id: " + tenantId);
+        }
+        boolean shared = sharedSchemaService.isEnabled();
+        String schema = shared ? SharedSchemaService.SHARED_SCHEMA : tenantId;
+        String parent = shared ? "audit_logs_" + tenantId : "audit_logs";
+
+        String kind = relationKind(schema, parent);
+        if (kind == null) {
+            log.warn("No {}.{} table for campus {}, skipping audit partition maintenance", schema, parent, tenantId);
+            return;
+        }
+
+        YearMonth current = YearMonth.now(IST_ZONE);
+        if ("r".equals(kind)) {
+            if (shared) {
+                // A campus partition created before sub-partitioning must be recreated by shared-partition.sql
+                log.warn("{}.{} is not sub-partitioned by month, skipping audit partition maintenance", schema, parent);
+                return;
+            }
+            convertToPartitioned(schema, current);
+        }
+        if (!shared) {
+            // Shared-schema indexes are defined on shared.audit_logs by shared-schema.sql
+            ensureIndexes(schema);
+        }
+
+        for (int i = 0; i <= monthsAhead; i++) {
+            createPartition(schema, parent, current.plusMonths(i));
+        }
+        if (retentionDays > 0) {
+            dropExpiredPartitions(schema, parent, LocalDate.now(IST_ZONE).minusDays(retentionDays));
+        }
+    }
+
+    /**
+     * Create missing keyset indexes on the partitioned table (cascades to partitions) and drop replaced ones.
+     * Existing indexes are left alone, so this only does work once per campus.
+     */
+    private void ensureIndexes(String schema) {
+        for (String legacy : LEGACY_INDEXES) {
+            jdbcTemplate.execute("DROP INDEX IF EXISTS " + schema + "." + legacy);
+        }
+        INDEXES.forEach((name, columns) -> jdbcTemplate.execute(
+                "CREATE INDEX IF NOT EXISTS " + name + " ON " + schema + ".audit_logs(" + columns + ")"));
+    }
+
+    /**
+     * pg_class.relkind of a table: 'p' partitioned, 'r' plain, null if missing
+     */
+    private String relationKind(String schema, String table) {
+        List<String> kinds = jdbcTemplate.queryForList("""
+                SELECT c.relkind::text FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace
+                WHERE n.nspname = ? AND c.relname = ?""", String.class, schema, table);
+        return kinds.isEmpty() ? null : kinds.get(0);
+    }
+
+    private void createPartition(String schema, String parent, YearMonth month) {
+        jdbcTemplate.execute(partitionStatement(schema, parent, month));
+    }
+
+    /**
+     * DDL creating the partition of a month if missing, for callers running their own transaction
+     */
+    public static String partitionStatement(String schema, String parent, YearMonth month) {
+        return String.format(
+                "CREATE TABLE IF NOT EXISTS %s.%s PARTITION OF %s.%s FOR VALUES FROM ('%s') TO ('%s')",
+                schema, partitionName(parent, month), schema, parent,
+                month.atDay(1), month.plusMonths(1).atDay(1));
+    }
+
+    /**
+     * Drop partitions whose whole month lies before the cutoff date
+     */
+    private void dropExpiredPartitions(String schema, String parent, LocalDate cutoff) {
+        List<String> partitions = jdbcTemplate.queryForList("""
+                SELECT c.relname FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                JOIN pg_class p ON p.oid = i.inhparent
+                JOIN pg_namespace n ON n.oid = p.relnamespace
+                WHERE n.nspname = ? AND p.relname = ?""", String.class, schema, parent);
+
+        for (String partition : partitions) {
+            Matcher matcher = PARTITION_SUFFIX.matcher(partition);
+            if (!matcher.find()) {
+                continue;
+            }
+            YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            if (!month.plusMonths(1).atDay(1).isAfter(cutoff)) {
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + schema + "." + partition);
+                log.info("Dropped audit partition {}.{} (retention {} days)", schema, partition, retentionDays);
+            }
+        }
+    }
+
+    /**
+     * Replace a plain audit_logs table with a partitioned one in a single transaction.
+     * Rows are copied into monthly partitions covering their range and the id sequence is kept.
+     */
+    private void convertToPartitioned(String schema, YearMonth current) {
+        log.info("Converting {}.audit_logs to monthly partitions", schema);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.execute("ALTER TABLE " + schema + ".audit_logs RENAME TO audit_logs_unpartitioned");
+            String sequence = jdbcTemplate.queryForObject("SELECT pg_get_serial_sequence(?, 'id')",
+                    String.class, schema + ".audit_logs_unpartitioned");
+            if (sequence == null) {
+                sequence = schema + ".audit_logs_id_seq";
+                jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + sequence);
+                jdbcTemplate.queryForObject("SELECT setval(?, GREATEST((SELECT MAX(id) FROM " + schema
+                        + ".audit_logs_unpartitioned), 1))", Long.class, sequence);
+            } else {
+                // Keep the sequence when the old table is dropped
+                jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " OWNED BY NONE");
+            }
+
+            jdbcTemplate.execute(String.format("""
+                    CREATE TABLE %1$s.audit_logs (
+                        id BIGINT NOT NULL DEFAULT nextval('%2$s'),
+                        user_id BIGINT REFERENCES %1$s.users(id),
+                        action VARCHAR(50) NOT NULL,
+                        entity_type VARCHAR(50),
+                        entity_id VARCHAR(100),
+                        details TEXT,
+                        ip_address VARCHAR(45),
+                        timestamp TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                        PRIMARY KEY (id, timestamp)
+                    ) PARTITION BY RANGE (timestamp)""", schema, sequence));
+
+            LocalDate oldest = jdbcTemplate.queryForObject(
+                    "SELECT MIN(timestamp)::date FROM " + schema + ".audit_logs_unpartitioned", LocalDate.class);
+            YearMonth month = oldest != null ? YearMonth.from(oldest) : current;
+            for (; !month.isAfter(current); month = month.plusMonths(1)) {
+                createPartition(schema, "audit_logs", month);
+            }
+
+            int copied = jdbcTemplate.update("INSERT INTO " + schema + ".audit_logs"
+                    + " (id, user_id, action, entity_type, entity_id, details, ip_address, timestamp)"
+                    + " SELECT id, user_id, action, entity_type, entity_id, details, ip_address, timestamp"
+                    + " FROM " + schema + ".audit_logs_unpartitioned");
+            jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " OWNED BY " + schema + ".audit_logs.id");
+            jdbcTemplate.execute("DROP TABLE " + schema + ".audit_logs_unpartitioned");
+
+            // Indexes are created afterwards by ensureIndexes, their names are free now that the old table is gone
+            log.info("Converted {}.audit_logs to monthly partitions ({} rows copied)", schema, copied);
+        });
+    }
+
+    /**
+     * Partition table name for a month, e.g. audit_logs_y2026m01
+     */
+    private static String partitionName(String parent, YearMonth month) {
+        return String.format("%s_y%04dm%02d", parent, month.getYear(), month.getMonthValue());
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.thekingstemple.service;
+
+import com.example.thekingstemple.dto.response.AuditLogPageResponse;
+import com.example.thekingstemple.dto.response.AuditLogResponse;
+import com.example.thekingstemple.entity.AuditLog;
+import com.example.thekingstemple.repository.AuditLogRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Service for browsing the audit trail of the current campus
+ * Pages are fetched with keyset pagination over (timestamp, id): the cursor holds the position of the
+ * last row returned, so page N costs the same as page 1 however many rows precede it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AuditQueryService {
+
+    private final AuditLogRepository auditLogRepository;
+
+    @Value("${audit.query.default-limit:50}")
+    private int defaultLimit;
+
+    @Value("${audit.query.max-limit:500}")
+    private int maxLimit;
+
+    /**
+     * Get a page of audit logs matching all given filters, newest first
+     *
+     * @param from inclusive, to exclusive
+     * @param cursor nextCursor of the previous page, or null for the first page
+     */
+    @Transactional(readOnly = true)
+    public AuditLogPageResponse getAuditLogs(Long userId, String action, String entityType, String entityId,
+                                             LocalDateTime from, LocalDateTime to, String cursor, Integer limit) {
+        if (entityId != null && entityType == null) {
+            throw new IllegalArgumentException("entityId requires entityType");
+        }
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        int pageSize = limit == null ? defaultLimit : limit;
+        if (pageSize < 1 || pageSize > maxLimit) {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxLimit);
+        }
+
+        Cursor position = cursor != null ? Cursor.decode(cursor) : null;
+        // One extra row tells whether another page exists
+        List<AuditLog> rows = auditLogRepository.findPage(userId, action, entityType, entityId, from, to,
+                position != null ? position.timestamp() : null, position != null ? position.id() : null,
+                pageSize + 1);
+
+        boolean hasMore = rows.size() > pageSize;
+        List<AuditLog> page = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            AuditLog last = page.get(page.size() - 1);
+            nextCursor = new Cursor(last.getTimestamp(), last.getId()).encode();
+        }
+
+        log.debug("Fetched {} audit logs (more: {})", page.size(), hasMore);
+        return AuditLogPageResponse.builder()
+                .items(page.stream().map(this::mapToResponse).toList())
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private AuditLogResponse mapToResponse(AuditLog auditLog) {
+        return AuditLogResponse.builder()
+                .id(auditLog.getId())
+                // Id of the lazy proxy, the user row is not loaded
+                .userId(auditLog.getUser() != null ? auditLog.getUser().getId() : null)
+                .action(auditLog.getAction())
+                .entityType(auditLog.getEntityType())
+                .entityId(auditLog.getEntityId())
+                .details(auditLog.getDetails())
+                .ipAddress(auditLog.getIpAddress())
+                .timestamp(auditLog.getTimestamp())
+                .build();
+    }
+
+    /**
+     * Keyset position, passed to clients as an opaque URL-safe token
+     */
+    private record Cursor(LocalDateTime timestamp, Long id) {
+
+        String encode() {
+            String raw = timestamp + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String token) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                int separator = raw.indexOf('|');
+                return new Cursor(LocalDateTime.parse(raw.substring(0, separator)),
+                        Long.parseLong(raw.substring(separator + 1)));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+    }
+}
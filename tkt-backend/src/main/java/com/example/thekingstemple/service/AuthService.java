@@ -5,12 +5,16 @@ import com.example.thekingstemple.dto.request.RefreshTokenRequest;
 import com.example.thekingstemple.dto.response.LoginResponse;
 import com.example.thekingstemple.entity.User;
 import com.example.thekingstemple.exception.InvalidCredentialsException;
+import com.example.thekingstemple.exception.TooManyRequestsException;
 import com.example.thekingstemple.repository.UserRepository;
 import com.example.thekingstemple.security.JwtTokenProvider;
 import com.example.thekingstemple.util.TenantContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -18,6 +22,10 @@ import org.springframework.transaction.support.TransactionSynchronization;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Service for authentication (login, token refresh, logout)
@@ -33,24 +41,69 @@ public class AuthService {
     private final JwtTokenProvider jwtTokenProvider;
     private final AuditLogService auditLogService;
     private final TokenBlacklistService tokenBlacklistService;
+    private final TenantRegistry tenantRegistry;
+    private final LoginThrottleService loginThrottleService;
+
+    @Qualifier("loginExecutor")
+    private final ThreadPoolTaskExecutor loginExecutor;
 
     @Value("${jwt.access-token-expiry}")
     private long accessTokenExpiry;
 
+    @Value("${security.pin-hash.bcrypt-cost:12}")
+    private int bcryptCost;
+
+    @Value("${auth.login.timeout-ms:10000}")
+    private long loginTimeoutMs;
+
+    @Value("${auth.login.retry-after-seconds:2}")
+    private long loginRetryAfterSeconds;
+
     /**
      * Login with mobile number and PIN
+     * Runs on the bounded login executor; when it is saturated the login is rejected with 429.
+     * Throttled accounts and IPs are rejected before any database or BCrypt work.
      */
-    public LoginResponse login(LoginRequest request) {
-        // Set tenant context BEFORE starting transaction
-        // This ensures Hibernate uses the correct schema when the transaction starts
-        TenantContext.setTenantId(request.getTenantId());
-        log.info("[AUTH-LOGIN] Set tenant context to: {} for login request", request.getTenantId());
+    public LoginResponse login(LoginRequest request, String clientIp) {
+        if (!tenantRegistry.isTenant(request.getTenantId())) {
+            throw new IllegalArgumentException("Unknown campus: " + request.getTenantId());
+        }
+
+        String mobileHash = encryptionService.hash(request.getMobileNumber());
+        loginThrottleService.checkAllowed(request.getTenantId(), mobileHash, clientIp);
+
+        Future<LoginResponse> future;
+        try {
+            // Tenant is bound on the login worker BEFORE the transaction starts, so Hibernate uses
+            // the correct schema, and is cleared again once the login completes
+            future = loginExecutor.submit(() -> TenantContext.callWithTenant(request.getTenantId(), () -> {
+                log.info("[AUTH-LOGIN] Set tenant context to: {} for login request", request.getTenantId());
+                return performLogin(request);
+            }));
+        } catch (TaskRejectedException e) {
+            log.warn("Login executor saturated, shedding login for tenant: {}", request.getTenantId());
+            throw new TooManyRequestsException("Too many logins in progress, please retry shortly", loginRetryAfterSeconds);
+        }
+
         try {
-            return performLogin(request);
-        } finally {
-            // Always clear tenant context after login completes
-            TenantContext.clear();
-            log.debug("Cleared tenant context after login completion");
+            LoginResponse response = future.get(loginTimeoutMs, TimeUnit.MILLISECONDS);
+            loginThrottleService.recordSuccess(request.getTenantId(), mobileHash);
+            return response;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof InvalidCredentialsException) {
+                loginThrottleService.recordFailure(request.getTenantId(), mobileHash, clientIp);
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Login failed", e.getCause());
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new TooManyRequestsException("Login timed out, please retry shortly", loginRetryAfterSeconds);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Login interrupted", e);
         }
     }
 
@@ -79,6 +132,13 @@ public class AuthService {
             throw new InvalidCredentialsException();
         }
 
+        // Transparently re-hash the PIN when the cost policy has changed
+        if (bcryptCost(user.getPinHash()) != bcryptCost) {
+            user.setPinHash(passwordEncoder.encode(request.getPin()));
+            userRepository.save(user);
+            log.info("Re-hashed PIN of user: {} with BCrypt cost {}", user.getId(), bcryptCost);
+        }
+
         // Generate tokens with tenant ID
         String accessToken = jwtTokenProvider.generateAccessToken(user.getId(), user.getMobileHash(), user.getRole(), user.getTenantId());
         String refreshToken = jwtTokenProvider.generateRefreshToken(user.getId(), user.getTenantId());
@@ -190,4 +250,18 @@ public class AuthService {
             tokenBlacklistService.blacklistToken(refreshToken, refreshTokenExpiry, "LOGOUT");
         }
     }
+
+    /**
+     * Extract the cost factor from a BCrypt hash ($2a$12$...), or -1 if it is not a BCrypt hash
+     */
+    private int bcryptCost(String hash) {
+        if (hash == null || hash.length() < 7 || hash.charAt(0) != '$' || hash.charAt(6) != '$') {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(hash.substring(4, 6));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
 }
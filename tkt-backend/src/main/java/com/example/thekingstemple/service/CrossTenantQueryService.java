@@ -0,0 +1,189 @@
+package com.example.thekingstemple.service;
+
+import com.example.thekingstemple.dto.response.CampusArrivalStats;
+import com.example.thekingstemple.dto.response.CampusTrendResponse;
+import com.example.thekingstemple.dto.response.DailyArrivalCount;
+import com.example.thekingstemple.entity.VehicleType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only queries spanning all campus schemas in a single statement.
+ * Instead of switching search_path per campus, one UNION ALL over the schema-qualified
+ * visits/vehicles tables returns counts grouped by campus, date and vehicle type.
+ * Admin only; schema names come from the tenant registry, which only holds validated identifiers.
+ * The statement runs under the dashboard's per-campus timeout, so a slow campus makes it fail fast and
+ * the dashboard falls back to the per-campus fan-out, which reports just that campus as unavailable.
+ * In shared-schema mode (multitenancy.mode=shared) it is one grouped query over the partitioned shared tables.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CrossTenantQueryService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TenantRegistry tenantRegistry;
+
+    @Value("${admin.dashboard.max-trend-days:366}")
+    private long maxTrendDays;
+
+    @Value("${multitenancy.mode:schema}")
+    private String mode;
+
+    @Value("${admin.dashboard.campus-timeout-ms:3000}")
+    private long campusTimeoutMs;
+
+    /**
+     * Arrival stats of every campus for a single date
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @Transactional(readOnly = true)
+    public Map<String, CampusArrivalStats> getArrivalStats(LocalDate date) {
+        Map<String, CampusArrivalStats> campusStats = new LinkedHashMap<>();
+        getDailyCounts(date, date).forEach((campus, days) -> {
+            DailyArrivalCount counts = days.get(0);
+            campusStats.put(campus, CampusArrivalStats.builder()
+                    .campusName(tenantRegistry.getDisplayName(campus))
+                    .bikesCount(counts.getBikesCount())
+                    .carsCount(counts.getCarsCount())
+                    .totalCount(counts.getTotalCount())
+                    .available(true)
+                    .build());
+        });
+        return campusStats;
+    }
+
+    /**
+     * Daily arrival counts of every campus over a date range, for trend charts
+     * Days without arrivals are included with zero counts.
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @Transactional(readOnly = true)
+    public CampusTrendResponse getArrivalTrends(LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+        long days = ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        if (days > maxTrendDays) {
+            throw new IllegalArgumentException(
+                    String.format("Date range exceeds maximum of %d days", maxTrendDays));
+        }
+
+        return CampusTrendResponse.builder()
+                .startDate(startDate)
+                .endDate(endDate)
+                .campusTrends(getDailyCounts(startDate, endDate))
+                .build();
+    }
+
+    /**
+     * Cross-campus daily counts read from the primary
+     * Used to reconcile live counters, which would otherwise be overwritten with a lagging replica's
+     * counts and lose recent arrivals. Read-write transactions are routed to the primary.
+     */
+    @Transactional
+    public Map<String, List<DailyArrivalCount>> getDailyCountsFromPrimary(LocalDate startDate, LocalDate endDate) {
+        return getDailyCounts(startDate, endDate);
+    }
+
+    /**
+     * Run the cross-campus query and pivot rows into campus -> per-day counts (zero-filled)
+     * Not access-checked, for internal callers such as schedulers; endpoints use the methods above.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, List<DailyArrivalCount>> getDailyCounts(LocalDate startDate, LocalDate endDate) {
+        List<String> schemas = tenantRegistry.getTenantIds();
+
+        // campus -> date -> counts, pre-filled so every campus and day is present
+        Map<String, Map<LocalDate, DailyArrivalCount>> pivot = new LinkedHashMap<>();
+        for (String schema : schemas) {
+            Map<LocalDate, DailyArrivalCount> daily = new LinkedHashMap<>();
+            for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+                daily.put(date, DailyArrivalCount.builder().date(date).build());
+            }
+            pivot.put(schema, daily);
+        }
+
+        // Transaction-scoped, so the pooled connection keeps its default afterwards
+        jdbcTemplate.queryForObject("SELECT set_config('statement_timeout', ?, true)", String.class,
+                String.valueOf(campusTimeoutMs));
+
+        List<Object> params = new ArrayList<>();
+        String sql;
+        if (SharedSchemaService.SHARED_SCHEMA.equals(mode)) {
+            // Reads every campus partition, so lift the tenant policy for this transaction only
+            jdbcTemplate.queryForObject("SELECT set_config('app.cross_tenant', 'on', true)", String.class);
+            sql = sharedSql(schemas, startDate, endDate, params);
+        } else {
+            sql = unionSql(schemas, startDate, endDate, params);
+        }
+
+        jdbcTemplate.query(sql, rs -> {
+            DailyArrivalCount counts = pivot.get(rs.getString("campus"))
+                    .get(rs.getObject("visit_date", LocalDate.class));
+            long count = rs.getLong("cnt");
+            if (VehicleType.BIKE.name().equals(rs.getString("vehicle_type"))) {
+                counts.setBikesCount(counts.getBikesCount() + count);
+            } else {
+                counts.setCarsCount(counts.getCarsCount() + count);
+            }
+            counts.setTotalCount(counts.getTotalCount() + count);
+        }, params.toArray());
+
+        Map<String, List<DailyArrivalCount>> result = new LinkedHashMap<>();
+        pivot.forEach((campus, daily) -> result.put(campus, new ArrayList<>(daily.values())));
+
+        log.debug("Cross-campus counts for {} to {} fetched in a single query over {} campuses ({} mode)",
+                startDate, endDate, schemas.size(), mode);
+        return result;
+    }
+
+    /**
+     * One UNION ALL branch per campus schema
+     */
+    private String unionSql(List<String> schemas, LocalDate startDate, LocalDate endDate, List<Object> params) {
+        StringBuilder sql = new StringBuilder();
+        for (String schema : schemas) {
+            // Schema names are concatenated into SQL; TenantRegistry only loads ids that pass isValidTenantId
+            if (!sql.isEmpty()) {
+                sql.append(" UNION ALL ");
+            }
+            sql.append("SELECT '").append(schema).append("' AS campus, v.visit_date, vh.vehicle_type, COUNT(*) AS cnt")
+                    .append(" FROM ").append(schema).append(".visits v")
+                    .append(" JOIN ").append(schema).append(".vehicles vh ON vh.id = v.vehicle_id")
+                    .append(" WHERE v.visit_date BETWEEN ? AND ?")
+                    .append(" GROUP BY v.visit_date, vh.vehicle_type");
+            params.add(startDate);
+            params.add(endDate);
+        }
+        return sql.toString();
+    }
+
+    /**
+     * A single grouped query over the shared tables, served by the (tenant_id, visit_date) index
+     * and limited to active campuses so deactivated partitions are pruned
+     */
+    private String sharedSql(List<String> schemas, LocalDate startDate, LocalDate endDate, List<Object> params) {
+        params.add(schemas.toArray(new String[0]));
+        params.add(startDate);
+        params.add(endDate);
+        return """
+                SELECT v.tenant_id AS campus, v.visit_date, vh.vehicle_type, COUNT(*) AS cnt
+                FROM shared.visits v
+                JOIN shared.vehicles vh ON vh.tenant_id = v.tenant_id AND vh.id = v.vehicle_id
+                WHERE v.tenant_id = ANY(?) AND v.visit_date BETWEEN ? AND ?
+                GROUP BY v.tenant_id, v.visit_date, vh.vehicle_type""";
+    }
+}
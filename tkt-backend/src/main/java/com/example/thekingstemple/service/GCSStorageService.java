@@ -1,6 +1,8 @@
 package com.example.thekingstemple.service;
 
 import com.example.thekingstemple.util.TenantContext;
+import com.google.cloud.ReadChannel;
+import com.google.cloud.WriteChannel;
 import com.google.cloud.storage.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -9,7 +11,16 @@ import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.NoSuchFileException;
+import java.util.Base64;
+import java.util.HexFormat;
 import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
@@ -17,6 +28,8 @@ import java.util.UUID;
 /**
  * Google Cloud Storage implementation of StorageService
  * Supports multi-tenancy with separate buckets per tenant
+ * Photos are streamed through a resumable upload session in fixed-size chunks, so an upload holds
+ * one copy buffer and one chunk on the heap whatever the file size.
  */
 @Service
 @Profile("prod")
@@ -29,7 +42,22 @@ public class GCSStorageService implements StorageService {
     @Value("${storage.gcs.bucket-prefix:tkt-}")
     private String bucketPrefix;
 
+    // Bucket without public access for exports, e.g. tkt-east-private
+    @Value("${storage.gcs.private-bucket-suffix:-private}")
+    private String privateBucketSuffix;
+
+    // Resumable upload chunk; GCS requires a multiple of 256 KB
+    @Value("${storage.upload.chunk-size-kb:256}")
+    private int uploadChunkSizeKb;
+
+    // Read buffer per served photo
+    @Value("${storage.download.chunk-size-kb:256}")
+    private int downloadChunkSizeKb;
+
     private static final long MAX_FILE_SIZE = 10 * 1024 * 1024; // 10MB in bytes
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+    private static final String PUBLIC_URL_PREFIX = "https://storage.googleapis.com/";
+    private static final String PRIVATE_URI_PREFIX = "gs://";
     private static final List<String> ALLOWED_CONTENT_TYPES = Arrays.asList(
             "image/jpeg",
             "image/jpg",
@@ -87,17 +115,122 @@ public class GCSStorageService implements StorageService {
                 .setContentType(contentType)
                 .build();
 
-        // Upload file to GCS
-        try {
-            Blob blob = storage.create(blobInfo, file.getBytes());
-            log.info("File uploaded successfully to bucket {}: {}", bucketName, uniqueFilename);
-
-            // Return public URL
-            return String.format("https://storage.googleapis.com/%s/%s", bucketName, uniqueFilename);
+        // Stream file to GCS; doesNotExist keeps retried chunks from overwriting another upload
+        try (ReadableByteChannel reader = Channels.newChannel(file.getInputStream());
+             WriteChannel writer = storage.writer(blobInfo, Storage.BlobWriteOption.doesNotExist())) {
+            writer.setChunkSize(uploadChunkSizeKb * 1024);
+            ByteBuffer buffer = ByteBuffer.allocate(COPY_BUFFER_SIZE);
+            while (reader.read(buffer) != -1) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    writer.write(buffer);
+                }
+                buffer.clear();
+            }
         } catch (Exception e) {
             log.error("Error uploading file to GCS bucket {}: {}", bucketName, e.getMessage(), e);
             throw new IOException("Failed to upload file to cloud storage", e);
         }
+        log.info("File uploaded successfully to bucket {}: {} ({} bytes)", bucketName, uniqueFilename, file.getSize());
+
+        // Return public URL
+        return String.format("https://storage.googleapis.com/%s/%s", bucketName, uniqueFilename);
+    }
+
+    /**
+     * Stream content into the tenant's private bucket through a resumable upload
+     * A failed write is deleted, since closing the channel finalizes whatever was written.
+     *
+     * @return The gs:// URI of the stored file
+     */
+    @Override
+    public String writePrivateFile(String contentType, String folder, String fileName, ContentWriter writer) throws IOException {
+        BlobId blobId = BlobId.of(getTenantBucketName() + privateBucketSuffix, folder + "/" + fileName);
+        BlobInfo blobInfo = BlobInfo.newBuilder(blobId)
+                .setContentType(contentType)
+                .build();
+
+        try (WriteChannel channel = storage.writer(blobInfo)) {
+            channel.setChunkSize(uploadChunkSizeKb * 1024);
+            OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), COPY_BUFFER_SIZE);
+            writer.writeTo(out);
+            out.flush();
+        } catch (Exception e) {
+            log.error("Error writing private file to GCS bucket {}: {}", blobId.getBucket(), e.getMessage(), e);
+            try {
+                storage.delete(blobId);
+            } catch (Exception deleteError) {
+                log.warn("Failed to delete partial file {}: {}", blobId.getName(), deleteError.getMessage());
+            }
+            throw new IOException("Failed to write file to cloud storage", e);
+        }
+        log.info("Private file stored successfully to bucket {}: {}", blobId.getBucket(), blobId.getName());
+        return String.format("gs://%s/%s", blobId.getBucket(), blobId.getName());
+    }
+
+    /**
+     * Open a file in GCS for reading through a chunked ReadChannel
+     *
+     * @param fileUrl The public URL of the file
+     * @return A stream over the blob content
+     * @throws IOException If the URL is invalid or the blob does not exist
+     */
+    @Override
+    public InputStream openFile(String fileUrl) throws IOException {
+        BlobId blobId = toBlobId(fileUrl);
+        if (blobId == null) {
+            throw new IOException("Invalid GCS URL: " + fileUrl);
+        }
+        Blob blob = storage.get(blobId);
+        if (blob == null) {
+            throw new NoSuchFileException(fileUrl, null, "File not found in cloud storage");
+        }
+        return Channels.newInputStream(blob.reader());
+    }
+
+    /**
+     * Get size, content type and content hash of a blob from its metadata, without reading it
+     * The hash is the MD5 stored by GCS, or CRC32C for composite objects that have none.
+     *
+     * @param fileUrl The public URL or gs:// URI of the file
+     * @throws NoSuchFileException If the blob does not exist
+     * @throws IOException         If the URL is invalid
+     */
+    @Override
+    public StoredFile stat(String fileUrl) throws IOException {
+        BlobId blobId = toBlobId(fileUrl);
+        if (blobId == null) {
+            throw new IOException("Invalid GCS URL: " + fileUrl);
+        }
+        Blob blob = storage.get(blobId, Storage.BlobGetOption.fields(
+                Storage.BlobField.SIZE, Storage.BlobField.CONTENT_TYPE, Storage.BlobField.MD5HASH, Storage.BlobField.CRC32C));
+        if (blob == null) {
+            throw new NoSuchFileException(fileUrl, null, "File not found in cloud storage");
+        }
+        String hash = blob.getMd5() != null ? blob.getMd5() : blob.getCrc32c();
+        return new StoredFile(blob.getSize(), blob.getContentType(),
+                HexFormat.of().formatHex(Base64.getDecoder().decode(hash)), null);
+    }
+
+    /**
+     * Open a byte range of a blob through a ReadChannel, which fetches it chunk by chunk
+     *
+     * @param fileUrl The public URL or gs:// URI of the file
+     * @param start   First byte to read
+     * @param end     Byte after the last one to read
+     * @throws IOException If the URL is invalid
+     */
+    @Override
+    public ReadableByteChannel openRange(String fileUrl, long start, long end) throws IOException {
+        BlobId blobId = toBlobId(fileUrl);
+        if (blobId == null) {
+            throw new IOException("Invalid GCS URL: " + fileUrl);
+        }
+        ReadChannel reader = storage.reader(blobId);
+        reader.setChunkSize(downloadChunkSizeKb * 1024);
+        reader.seek(start);
+        reader.limit(end);
+        return reader;
     }
 
     /**
@@ -113,26 +246,18 @@ public class GCSStorageService implements StorageService {
         }
 
         try {
-            // Extract bucket and blob name from URL
-            // URL format: https://storage.googleapis.com/{bucket}/{blob-name}
-            String urlPath = fileUrl.substring("https://storage.googleapis.com/".length());
-            int firstSlash = urlPath.indexOf('/');
-
-            if (firstSlash == -1) {
+            BlobId blobId = toBlobId(fileUrl);
+            if (blobId == null) {
                 log.error("Invalid GCS URL format: {}", fileUrl);
                 return false;
             }
 
-            String bucketName = urlPath.substring(0, firstSlash);
-            String blobName = urlPath.substring(firstSlash + 1);
-
-            BlobId blobId = BlobId.of(bucketName, blobName);
             boolean deleted = storage.delete(blobId);
 
             if (deleted) {
-                log.info("File deleted successfully from bucket {}: {}", bucketName, blobName);
+                log.info("File deleted successfully from bucket {}: {}", blobId.getBucket(), blobId.getName());
             } else {
-                log.warn("File not found for deletion in bucket {}: {}", bucketName, blobName);
+                log.warn("File not found for deletion in bucket {}: {}", blobId.getBucket(), blobId.getName());
             }
 
             return deleted;
@@ -142,6 +267,29 @@ public class GCSStorageService implements StorageService {
         }
     }
 
+    /**
+     * Extract bucket and blob name from a public URL or a private file URI, or null if it is neither
+     * URL format: https://storage.googleapis.com/{bucket}/{blob-name} or gs://{bucket}/{blob-name}
+     */
+    private BlobId toBlobId(String fileUrl) {
+        if (fileUrl == null) {
+            return null;
+        }
+        String urlPath;
+        if (fileUrl.startsWith(PUBLIC_URL_PREFIX)) {
+            urlPath = fileUrl.substring(PUBLIC_URL_PREFIX.length());
+        } else if (fileUrl.startsWith(PRIVATE_URI_PREFIX)) {
+            urlPath = fileUrl.substring(PRIVATE_URI_PREFIX.length());
+        } else {
+            return null;
+        }
+        int firstSlash = urlPath.indexOf('/');
+        if (firstSlash <= 0 || firstSlash == urlPath.length() - 1) {
+            return null;
+        }
+        return BlobId.of(urlPath.substring(0, firstSlash), urlPath.substring(firstSlash + 1));
+    }
+
     /**
      * Get the tenant-specific GCS bucket name
      * Format: {bucketPrefix}{tenantId}
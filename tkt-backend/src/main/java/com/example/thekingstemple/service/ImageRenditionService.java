@@ -0,0 +1,387 @@
+package com.example.thekingstemple.service;
+
+import com.example.thekingstemple.entity.Vehicle;
+import com.example.thekingstemple.repository.VehicleRepository;
+import com.example.thekingstemple.util.TenantContext;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service for downscaled JPEG renditions (thumbnail and medium) of vehicle photos
+ * Renditions are generated after the upload commits on a small bounded pool; photos uploaded before
+ * renditions existed are backfilled once after startup, one at a time. They are stored as private files
+ * (same folder, -thumb/-medium suffix), served through /vehicles/{id}/images/{kind}, and their storage
+ * URIs saved on the vehicle.
+ * Photos ImageIO cannot decode (e.g. HEIC) keep only the original; clients fall back to it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ImageRenditionService {
+
+    private static final String CONTENT_TYPE = "image/jpeg";
+
+    /**
+     * Photos of a vehicle, with the storage folder of their uploads
+     */
+    public enum Photo {
+        CAR("vehicles/car"),
+        KEY("vehicles/key");
+
+        private final String folder;
+
+        Photo(String folder) {
+            this.folder = folder;
+        }
+
+        public String getFolder() {
+            return folder;
+        }
+    }
+
+    /**
+     * Rendition sizes (longest side in pixels)
+     */
+    public enum Rendition {
+        THUMBNAIL("thumb", 240),
+        MEDIUM("medium", 960);
+
+        private final String suffix;
+        private final int maxSize;
+
+        Rendition(String suffix, int maxSize) {
+            this.suffix = suffix;
+            this.maxSize = maxSize;
+        }
+    }
+
+    private final StorageService storageService;
+    private final VehicleRepository vehicleRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final TenantRegistry tenantRegistry;
+
+    @Qualifier("imageRenditionExecutor")
+    private final ThreadPoolTaskExecutor imageRenditionExecutor;
+
+    @Value("${images.renditions.enabled:true}")
+    private boolean enabled;
+
+    @Value("${images.renditions.jpeg-quality:0.8}")
+    private float jpegQuality;
+
+    @Value("${images.renditions.backfill.enabled:true}")
+    private boolean backfillEnabled;
+
+    @Value("${images.renditions.backfill.page-size:50}")
+    private int backfillPageSize;
+
+    // Photos queued or being rendered, so the same work is not scheduled twice
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean running = true;
+
+    // Photos that could not be rendered; not retried on every request
+    private final Cache<String, Boolean> failed = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(6, TimeUnit.HOURS)
+            .build();
+
+    /**
+     * Render a newly uploaded photo once the current transaction commits (or right away without one)
+     */
+    public void renderAfterCommit(Long vehicleId, Photo photo, String originalUrl) {
+        if (!enabled || originalUrl == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(vehicleId, photo, originalUrl);
+                }
+            });
+        } else {
+            submit(vehicleId, photo, originalUrl);
+        }
+    }
+
+    /**
+     * Queue the one-shot backfill of photos uploaded before renditions existed.
+     * It takes a single rendition thread and renders one photo at a time, so uploads keep the rest of the pool.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (!enabled || !backfillEnabled) {
+            return;
+        }
+        try {
+            imageRenditionExecutor.execute(this::backfill);
+        } catch (TaskRejectedException e) {
+            log.warn("Rendition queue full, skipping rendition backfill");
+        }
+    }
+
+    /**
+     * Render the missing renditions of every campus, paging through vehicles by id
+     */
+    void backfill() {
+        for (String tenantId : tenantRegistry.getTenantIds()) {
+            TenantContext.runWithTenant(tenantId, () -> {
+                int rendered = 0;
+                long afterId = 0;
+                List<Vehicle> page;
+                do {
+                    page = vehicleRepository.findWithMissingRenditions(afterId, PageRequest.of(0, backfillPageSize));
+                    for (Vehicle vehicle : page) {
+                        afterId = vehicle.getId();
+                        if (vehicle.getCarImageUrl() != null && vehicle.getCarThumbnailUrl() == null) {
+                            rendered += renderTracked(vehicle.getId(), Photo.CAR, vehicle.getCarImageUrl()) ? 1 : 0;
+                        }
+                        if (vehicle.getKeyImageUrl() != null && vehicle.getKeyThumbnailUrl() == null) {
+                            rendered += renderTracked(vehicle.getId(), Photo.KEY, vehicle.getKeyImageUrl()) ? 1 : 0;
+                        }
+                    }
+                } while (page.size() == backfillPageSize && running);
+                if (rendered > 0) {
+                    log.info("Backfilled renditions of {} photos for campus {}", rendered, tenantId);
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+    }
+
+    /**
+     * Clear the renditions of a photo on the vehicle (caller saves it)
+     *
+     * @return URLs of the cleared renditions, for the caller to delete once the change is committed
+     */
+    public List<String> clearRenditions(Vehicle vehicle, Photo photo) {
+        List<String> cleared = new ArrayList<>();
+        for (Rendition rendition : Rendition.values()) {
+            String url = getUrl(vehicle, photo, rendition);
+            if (url != null) {
+                cleared.add(url);
+                setUrl(vehicle, photo, rendition, null);
+            }
+        }
+        return cleared;
+    }
+
+    private void submit(Long vehicleId, Photo photo, String originalUrl) {
+        try {
+            imageRenditionExecutor.execute(() -> renderTracked(vehicleId, photo, originalUrl));
+        } catch (TaskRejectedException e) {
+            // Queue full: the photo is picked up by the backfill on the next startup
+            log.warn("Rendition queue full, skipping {} photo of vehicle {}", photo, vehicleId);
+        }
+    }
+
+    /**
+     * Render a photo unless it is already being rendered or recently failed
+     *
+     * @return true if renditions were rendered
+     */
+    private boolean renderTracked(Long vehicleId, Photo photo, String originalUrl) {
+        String key = TenantContext.getTenantId() + ":" + originalUrl;
+        if (failed.getIfPresent(key) != null || !inFlight.add(key)) {
+            return false;
+        }
+        try {
+            render(vehicleId, photo, originalUrl);
+            return true;
+        } catch (Exception e) {
+            failed.put(key, Boolean.TRUE);
+            log.warn("Could not render {} photo of vehicle {}: {}", photo, vehicleId, e.getMessage());
+            return false;
+        } finally {
+            inFlight.remove(key);
+        }
+    }
+
+    private void render(Long vehicleId, Photo photo, String originalUrl) throws IOException {
+        BufferedImage original;
+        try (InputStream in = storageService.openFile(originalUrl)) {
+            original = decode(in);
+        }
+        if (original == null) {
+            throw new IOException("unsupported image format");
+        }
+
+        String baseName = baseName(originalUrl);
+        Map<Rendition, String> urls = new EnumMap<>(Rendition.class);
+        Boolean saved;
+        try {
+            for (Rendition rendition : Rendition.values()) {
+                byte[] jpeg = encode(scale(original, rendition.maxSize));
+                urls.put(rendition, storageService.writePrivateFile(CONTENT_TYPE, photo.getFolder(),
+                        baseName + "-" + rendition.suffix + ".jpg", out -> out.write(jpeg)));
+            }
+
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            saved = transactionTemplate.execute(status -> {
+                Vehicle vehicle = vehicleRepository.findById(vehicleId).orElse(null);
+                // The photo may have been replaced or removed, or rendered by another instance, meanwhile
+                if (vehicle == null || !originalUrl.equals(getOriginalUrl(vehicle, photo))
+                        || getUrl(vehicle, photo, Rendition.THUMBNAIL) != null) {
+                    return false;
+                }
+                urls.forEach((rendition, url) -> setUrl(vehicle, photo, rendition, url));
+                vehicleRepository.save(vehicle);
+                return true;
+            });
+        } catch (IOException | RuntimeException e) {
+            // Renditions stored before the failure would otherwise be orphaned
+            urls.values().forEach(storageService::deleteFile);
+            throw e;
+        }
+
+        if (Boolean.TRUE.equals(saved)) {
+            log.info("Rendered {} photo of vehicle {}", photo, vehicleId);
+        } else {
+            urls.values().forEach(storageService::deleteFile);
+            log.debug("{} photo of vehicle {} changed while rendering, discarded renditions", photo, vehicleId);
+        }
+    }
+
+    /**
+     * Decode with source subsampling, so a 12 MP photo is never expanded to full size in memory
+     */
+    private BufferedImage decode(InputStream in) throws IOException {
+        try (ImageInputStream imageIn = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = imageIn != null ? ImageIO.getImageReaders(imageIn) : null;
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(imageIn, true, true);
+                int longestSide = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int subsampling = Math.max(1, longestSide / Rendition.MEDIUM.maxSize);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Fit into maxSize x maxSize keeping the aspect ratio; never upscales. Transparency becomes white.
+     */
+    private BufferedImage scale(BufferedImage source, int maxSize) {
+        double factor = Math.min(1.0, (double) maxSize / Math.max(source.getWidth(), source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * factor));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * factor));
+
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    private byte[] encode(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(bytes)) {
+            writer.setOutput(out);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * File name of the original without folder and extension
+     */
+    private String baseName(String originalUrl) {
+        String name = originalUrl.substring(Math.max(originalUrl.lastIndexOf('/'), originalUrl.lastIndexOf('\\')) + 1);
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+
+    String getOriginalUrl(Vehicle vehicle, Photo photo) {
+        return photo == Photo.CAR ? vehicle.getCarImageUrl() : vehicle.getKeyImageUrl();
+    }
+
+    String getUrl(Vehicle vehicle, Photo photo, Rendition rendition) {
+        return switch (photo) {
+            case CAR -> rendition == Rendition.THUMBNAIL ? vehicle.getCarThumbnailUrl() : vehicle.getCarMediumUrl();
+            case KEY -> rendition == Rendition.THUMBNAIL ? vehicle.getKeyThumbnailUrl() : vehicle.getKeyMediumUrl();
+        };
+    }
+
+    private void setUrl(Vehicle vehicle, Photo photo, Rendition rendition, String url) {
+        switch (photo) {
+            case CAR -> {
+                if (rendition == Rendition.THUMBNAIL) {
+                    vehicle.setCarThumbnailUrl(url);
+                } else {
+                    vehicle.setCarMediumUrl(url);
+                }
+            }
+            case KEY -> {
+                if (rendition == Rendition.THUMBNAIL) {
+                    vehicle.setKeyThumbnailUrl(url);
+                } else {
+                    vehicle.setKeyMediumUrl(url);
+                }
+            }
+        }
+    }
+}
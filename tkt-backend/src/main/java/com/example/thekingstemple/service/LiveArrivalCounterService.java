@@ -0,0 +1,189 @@
+package com.example.thekingstemple.service;
+
+import com.example.thekingstemple.config.PgNotificationListener;
+import com.example.thekingstemple.dto.response.CampusArrivalStats;
+import com.example.thekingstemple.dto.response.DailyArrivalCount;
+import com.example.thekingstemple.entity.VehicleType;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory arrival counters per (campus, date, vehicle type) for today's dashboard.
+ * Counters are LongAdders, so concurrent arrivals never contend on a lock; they are incremented
+ * after a markArrival commit and broadcast to other instances via LISTEN/NOTIFY.
+ * A periodic reconciliation against the database corrects any drift (missed notifications,
+ * rolled-back races, restarts). Until the first reconciliation for today has run, or while the
+ * notification listener is disconnected, callers fall back to the database.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LiveArrivalCounterService {
+
+    private static final ZoneId IST_ZONE = ZoneId.of("Asia/Kolkata");
+    private static final String ARRIVAL_CHANNEL = "arrival_recorded";
+
+    private final CrossTenantQueryService crossTenantQueryService;
+    private final TenantRegistry tenantRegistry;
+    private final PgNotificationListener notificationListener;
+
+    @Value("${admin.dashboard.live-counters.enabled:true}")
+    private boolean enabled;
+
+    // Identifies notifications sent by this instance, which are already counted locally
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final Map<CounterKey, LongAdder> counters = new ConcurrentHashMap<>();
+
+    // Date of the last successful reconciliation; counters are trusted only for this date
+    private volatile LocalDate reconciledDate;
+
+    @PostConstruct
+    public void init() {
+        notificationListener.subscribe(ARRIVAL_CHANNEL, this::onArrivalNotification);
+        notificationListener.onReconnect(this::reconcileAfterReconnect);
+    }
+
+    /**
+     * Count an arrival once the current transaction commits
+     */
+    public void recordArrival(String tenantId, LocalDate date, VehicleType vehicleType) {
+        if (!enabled || tenantId == null) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    increment(tenantId, date, vehicleType);
+                }
+            });
+        } else {
+            increment(tenantId, date, vehicleType);
+        }
+
+        // NOTIFY is transactional: other instances only see it if the visit commits
+        notificationListener.publish(ARRIVAL_CHANNEL,
+                String.join("|", instanceId, tenantId, date.toString(), vehicleType.name()));
+    }
+
+    /**
+     * Live stats of every campus for a date, or null if the counters cannot be trusted for it
+     */
+    public Map<String, CampusArrivalStats> getLiveStats(LocalDate date) {
+        if (!enabled || !date.equals(reconciledDate) || !date.equals(LocalDate.now(IST_ZONE))
+                || !notificationListener.isConnected()) {
+            return null;
+        }
+
+        Map<String, CampusArrivalStats> campusStats = new LinkedHashMap<>();
+        for (String campus : tenantRegistry.getTenantIds()) {
+            long bikesCount = get(campus, date, VehicleType.BIKE);
+            long carsCount = get(campus, date, VehicleType.CAR);
+            campusStats.put(campus, CampusArrivalStats.builder()
+                    .campusName(tenantRegistry.getDisplayName(campus))
+                    .bikesCount(bikesCount)
+                    .carsCount(carsCount)
+                    .totalCount(bikesCount + carsCount)
+                    .available(true)
+                    .build());
+        }
+        return campusStats;
+    }
+
+    /**
+     * Reconcile today's counters with the database at startup
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        reconcile();
+    }
+
+    /**
+     * Reconcile today's counters with the database and drop previous days
+     * Differences are applied as deltas; an arrival racing with the query is off by one until the next run.
+     */
+    @Scheduled(fixedDelayString = "${admin.dashboard.live-counters.reconcile-interval-ms:60000}",
+            initialDelayString = "${admin.dashboard.live-counters.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        if (!enabled) {
+            return;
+        }
+
+        LocalDate today = LocalDate.now(IST_ZONE);
+        try {
+            Map<String, List<DailyArrivalCount>> dbCounts = crossTenantQueryService.getDailyCountsFromPrimary(today, today);
+            long drift = 0;
+            for (Map.Entry<String, List<DailyArrivalCount>> entry : dbCounts.entrySet()) {
+                DailyArrivalCount counts = entry.getValue().get(0);
+                drift += adjust(entry.getKey(), today, VehicleType.BIKE, counts.getBikesCount());
+                drift += adjust(entry.getKey(), today, VehicleType.CAR, counts.getCarsCount());
+            }
+
+            counters.keySet().removeIf(key -> key.date().isBefore(today));
+            reconciledDate = today;
+
+            if (drift != 0) {
+                log.info("Reconciled live arrival counters for {}, corrected drift of {}", today, drift);
+            }
+        } catch (Exception e) {
+            log.error("Failed to reconcile live arrival counters: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Arrivals notified while the listener was disconnected are lost, so stop trusting the counters
+     * until they have been reconciled again
+     */
+    private void reconcileAfterReconnect() {
+        reconciledDate = null;
+        reconcile();
+    }
+
+    private long adjust(String tenantId, LocalDate date, VehicleType vehicleType, long dbCount) {
+        LongAdder adder = counters.computeIfAbsent(new CounterKey(tenantId, date, vehicleType), key -> new LongAdder());
+        long delta = dbCount - adder.sum();
+        if (delta != 0) {
+            adder.add(delta);
+        }
+        return Math.abs(delta);
+    }
+
+    private void onArrivalNotification(String payload) {
+        String[] parts = payload.split("\\|");
+        if (parts.length != 4 || parts[0].equals(instanceId)) {
+            return;
+        }
+        increment(parts[1], LocalDate.parse(parts[2]), VehicleType.valueOf(parts[3]));
+    }
+
+    private void increment(String tenantId, LocalDate date, VehicleType vehicleType) {
+        counters.computeIfAbsent(new CounterKey(tenantId, date, vehicleType), key -> new LongAdder()).increment();
+    }
+
+    private long get(String tenantId, LocalDate date, VehicleType vehicleType) {
+        LongAdder adder = counters.get(new CounterKey(tenantId, date, vehicleType));
+        return adder != null ? adder.sum() : 0;
+    }
+
+    private record CounterKey(String tenantId, LocalDate date, VehicleType vehicleType) {
+    }
+}
@@ -1,19 +1,36 @@
 package com.example.thekingstemple.service;
 
 import com.example.thekingstemple.util.TenantContext;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.io.ByteStreams;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.UUID;
 
@@ -21,6 +38,7 @@ import java.util.UUID;
  * Local filesystem implementation of StorageService
  * Supports multi-tenancy with separate folders per tenant
  * Used for development and testing environments
+ * Uploads are copied channel to channel with FileChannel.transferFrom, never loaded whole into memory.
  */
 @Service
 @Profile("dev")
@@ -30,7 +48,13 @@ public class LocalStorageService implements StorageService {
     @Value("${storage.local.base-path:/Users/prasanthganta/resources/tkt}")
     private String basePath;
 
+    // Content hashes of served files; stored files are never rewritten, so entries stay valid
+    private final Cache<String, String> contentHashes = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .build();
+
     private static final long MAX_FILE_SIZE = 10 * 1024 * 1024; // 10MB in bytes
+    private static final String PRIVATE_FOLDER = "private";
     private static final List<String> ALLOWED_CONTENT_TYPES = Arrays.asList(
             "image/jpeg",
             "image/jpg",
@@ -93,19 +117,112 @@ public class LocalStorageService implements StorageService {
         // Create full file path
         Path filePath = tenantFolderPath.resolve(uniqueFilename);
 
-        // Save file to local filesystem
-        try {
-            Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-            log.info("File uploaded successfully to local storage: {}", filePath);
+        // Save file to local filesystem through a fixed-size transfer buffer
+        try (ReadableByteChannel in = Channels.newChannel(file.getInputStream());
+             FileChannel out = FileChannel.open(filePath, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            long size = file.getSize();
+            long position = 0;
+            while (position < size) {
+                long transferred = out.transferFrom(in, position, size - position);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+            }
+            // transferFrom returns 0 at end of input, so a short upload ends the loop early
+            if (position < size) {
+                throw new IOException("Upload ended after " + position + " of " + size + " bytes");
+            }
+            log.info("File uploaded successfully to local storage: {} ({} bytes)", filePath, position);
 
             // Return the absolute file path
             return filePath.toString();
         } catch (IOException e) {
             log.error("Error saving file to local storage: {}", e.getMessage(), e);
+            // Do not leave a partial file behind (a name clash is someone else's file)
+            if (!(e instanceof FileAlreadyExistsException)) {
+                try {
+                    Files.deleteIfExists(filePath);
+                } catch (IOException deleteFailure) {
+                    e.addSuppressed(deleteFailure);
+                }
+            }
             throw new IOException("Failed to save file to local storage", e);
         }
     }
 
+    /**
+     * Stream content to the tenant's private folder ({basePath}/{tenant}/private/{folder})
+     *
+     * @return The local file path of the stored file
+     */
+    @Override
+    public String writePrivateFile(String contentType, String folder, String fileName, ContentWriter writer) throws IOException {
+        Path tenantFolderPath = Paths.get(basePath, getTenantId(), PRIVATE_FOLDER, folder);
+        Files.createDirectories(tenantFolderPath);
+
+        Path filePath = tenantFolderPath.resolve(fileName);
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(filePath), 64 * 1024)) {
+            writer.writeTo(out);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(filePath);
+            log.error("Error writing private file to local storage: {}", e.getMessage(), e);
+            throw new IOException("Failed to write file to local storage", e);
+        }
+        log.info("Private file stored successfully to local storage: {}", filePath);
+        return filePath.toString();
+    }
+
+    /**
+     * Open a file from local filesystem for reading
+     *
+     * @param fileUrl The file path
+     * @return A stream over the file content
+     * @throws IOException If the path is outside the base path or the file cannot be read
+     */
+    @Override
+    public InputStream openFile(String fileUrl) throws IOException {
+        return Files.newInputStream(resolveStoredFile(fileUrl));
+    }
+
+    /**
+     * Get size, content type and SHA-256 of a local file; the hash is computed once per file
+     *
+     * @param fileUrl The file path
+     * @throws IOException If the path is outside the base path or the file cannot be read
+     */
+    @Override
+    public StoredFile stat(String fileUrl) throws IOException {
+        Path filePath = resolveStoredFile(fileUrl);
+        BasicFileAttributes attributes = Files.readAttributes(filePath, BasicFileAttributes.class);
+        String cacheKey = filePath + ":" + attributes.size() + ":" + attributes.lastModifiedTime().toMillis();
+
+        String hash = contentHashes.getIfPresent(cacheKey);
+        if (hash == null) {
+            hash = sha256(filePath);
+            contentHashes.put(cacheKey, hash);
+        }
+        String contentType = MediaTypeFactory.getMediaType(filePath.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM)
+                .toString();
+        return new StoredFile(attributes.size(), contentType, hash, filePath);
+    }
+
+    /**
+     * Open a byte range of a local file
+     *
+     * @param fileUrl The file path
+     * @param start   First byte to read
+     * @param end     Byte after the last one to read
+     * @throws IOException If the path is outside the base path or the file cannot be read
+     */
+    @Override
+    public ReadableByteChannel openRange(String fileUrl, long start, long end) throws IOException {
+        FileChannel channel = FileChannel.open(resolveStoredFile(fileUrl), StandardOpenOption.READ);
+        channel.position(start);
+        return Channels.newChannel(ByteStreams.limit(Channels.newInputStream(channel), end - start));
+    }
+
     /**
      * Delete a file from local filesystem
      *
@@ -142,6 +259,35 @@ public class LocalStorageService implements StorageService {
         }
     }
 
+    /**
+     * Normalized path of a stored file, verified to be within the base path (security check)
+     */
+    private Path resolveStoredFile(String fileUrl) throws IOException {
+        Path filePath = Paths.get(fileUrl).normalize();
+        if (!filePath.startsWith(basePath)) {
+            throw new IOException("File is outside the storage base path: " + fileUrl);
+        }
+        return filePath;
+    }
+
+    private String sha256(Path filePath) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
     /**
      * Get the current tenant ID from context
      */
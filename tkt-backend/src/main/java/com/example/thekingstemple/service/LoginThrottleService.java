@@ -0,0 +1,240 @@
+package com.example.thekingstemple.service;
+
+import com.example.thekingstemple.exception.TooManyRequestsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory login throttling, applied before any database lookup or BCrypt work.
+ * Each account (campus + mobile hash) and each client IP has a lock-free token bucket; every attempt
+ * takes a token, and repeated failures lock the key out for a configurable period.
+ * Buckets are per instance, so limits are effectively multiplied by the number of instances.
+ * Buckets expire after a couple of idle minutes (or when their lockout ends, if later), whatever their
+ * failure count, and the number of tracked keys is capped, so spraying accounts or IPs cannot grow memory.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LoginThrottleService {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${auth.throttle.enabled:true}")
+    private boolean enabled;
+
+    @Value("${auth.throttle.account.capacity:5}")
+    private int accountCapacity;
+
+    @Value("${auth.throttle.account.refill-per-minute:5}")
+    private int accountRefillPerMinute;
+
+    @Value("${auth.throttle.account.max-failures:10}")
+    private int accountMaxFailures;
+
+    @Value("${auth.throttle.ip.capacity:30}")
+    private int ipCapacity;
+
+    @Value("${auth.throttle.ip.refill-per-minute:30}")
+    private int ipRefillPerMinute;
+
+    @Value("${auth.throttle.ip.max-failures:50}")
+    private int ipMaxFailures;
+
+    @Value("${auth.throttle.lockout-seconds:900}")
+    private long lockoutSeconds;
+
+    @Value("${auth.throttle.max-tracked:100000}")
+    private long maxTracked;
+
+    private static final long IDLE_NANOS = TimeUnit.MINUTES.toNanos(2);
+
+    private Cache<String, TokenBucket> buckets;
+
+    private Counter rateLimitedCounter;
+    private Counter lockedOutCounter;
+    private Counter lockoutsCounter;
+
+    @PostConstruct
+    public void init() {
+        buckets = Caffeine.newBuilder()
+                .maximumSize(maxTracked)
+                .expireAfter(new Expiry<String, TokenBucket>() {
+                    @Override
+                    public long expireAfterCreate(String key, TokenBucket bucket, long currentTime) {
+                        return bucket.expiresIn(currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, TokenBucket bucket, long currentTime, long currentDuration) {
+                        return bucket.expiresIn(currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, TokenBucket bucket, long currentTime, long currentDuration) {
+                        return bucket.expiresIn(currentTime);
+                    }
+                })
+                .build();
+
+        rateLimitedCounter = Counter.builder("auth.throttle.rejections").tag("reason", "rate_limit")
+                .description("Login attempts rejected by the rate limiter").register(meterRegistry);
+        lockedOutCounter = Counter.builder("auth.throttle.rejections").tag("reason", "lockout")
+                .description("Login attempts rejected because the account or IP is locked out").register(meterRegistry);
+        lockoutsCounter = Counter.builder("auth.throttle.lockouts")
+                .description("Accounts or IPs locked out after repeated failures").register(meterRegistry);
+        Gauge.builder("auth.throttle.banned", this, LoginThrottleService::countLocked)
+                .description("Accounts and IPs currently locked out").register(meterRegistry);
+        Gauge.builder("auth.throttle.tracked", buckets, Cache::estimatedSize)
+                .description("Accounts and IPs with an active throttle bucket").register(meterRegistry);
+    }
+
+    /**
+     * Take a token for the account and the client IP, or reject with 429
+     */
+    public void checkAllowed(String tenantId, String mobileHash, String clientIp) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        tryAcquire(accountKey(tenantId, mobileHash), accountCapacity, accountRefillPerMinute, now);
+        if (clientIp != null) {
+            tryAcquire(ipKey(clientIp), ipCapacity, ipRefillPerMinute, now);
+        }
+    }
+
+    /**
+     * Record a failed login; locks the account or IP out after too many consecutive failures
+     */
+    public void recordFailure(String tenantId, String mobileHash, String clientIp) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        recordFailure(accountKey(tenantId, mobileHash), accountCapacity, accountMaxFailures, now);
+        if (clientIp != null) {
+            recordFailure(ipKey(clientIp), ipCapacity, ipMaxFailures, now);
+        }
+    }
+
+    /**
+     * Record a successful login; clears the account's failure count
+     */
+    public void recordSuccess(String tenantId, String mobileHash) {
+        if (!enabled) {
+            return;
+        }
+        TokenBucket bucket = buckets.getIfPresent(accountKey(tenantId, mobileHash));
+        if (bucket != null) {
+            bucket.state.updateAndGet(state -> new BucketState(state.tokens(), state.refilledAt(), 0, 0));
+        }
+    }
+
+    private void tryAcquire(String key, int capacity, int refillPerMinute, long now) {
+        TokenBucket bucket = buckets.get(key, k -> new TokenBucket(capacity, now));
+        double refillPerNano = refillPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+
+        while (true) {
+            BucketState current = bucket.state.get();
+
+            if (current.lockedUntil() != 0 && current.lockedUntil() - now > 0) {
+                lockedOutCounter.increment();
+                throw new TooManyRequestsException("Too many failed login attempts, please try again later",
+                        toRetryAfterSeconds(current.lockedUntil() - now));
+            }
+
+            double tokens = Math.min(capacity, current.tokens() + (now - current.refilledAt()) * refillPerNano);
+            if (tokens < 1) {
+                rateLimitedCounter.increment();
+                throw new TooManyRequestsException("Too many login attempts, please slow down",
+                        toRetryAfterSeconds((long) ((1 - tokens) / refillPerNano)));
+            }
+
+            BucketState next = new BucketState(tokens - 1, now, current.failures(), 0);
+            if (bucket.state.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+
+    private void recordFailure(String key, int capacity, int maxFailures, long now) {
+        TokenBucket bucket = buckets.get(key, k -> new TokenBucket(capacity, now));
+        BucketState updated = bucket.state.updateAndGet(state -> {
+            int failures = state.failures() + 1;
+            long lockedUntil = failures >= maxFailures ? now + TimeUnit.SECONDS.toNanos(lockoutSeconds) : 0;
+            return new BucketState(state.tokens(), state.refilledAt(), failures >= maxFailures ? 0 : failures, lockedUntil);
+        });
+        if (updated.lockedUntil() != 0) {
+            // Re-put so the entry's expiry is extended to the end of the lockout
+            buckets.put(key, bucket);
+            lockoutsCounter.increment();
+            log.warn("Login locked out for {} seconds after {} failures: {}", lockoutSeconds, maxFailures,
+                    key.startsWith("ip:") ? key : key.substring(0, key.lastIndexOf(':')));
+        }
+    }
+
+    /**
+     * Run pending expirations, so idle buckets are released even without login traffic
+     */
+    @Scheduled(fixedDelayString = "${auth.throttle.cleanup-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        buckets.cleanUp();
+    }
+
+    private double countLocked() {
+        long now = System.nanoTime();
+        return buckets.asMap().values().stream()
+                .map(bucket -> bucket.state.get())
+                .filter(state -> state.lockedUntil() != 0 && state.lockedUntil() - now > 0)
+                .count();
+    }
+
+    private long toRetryAfterSeconds(long nanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(nanos) + 1);
+    }
+
+    private String accountKey(String tenantId, String mobileHash) {
+        return "account:" + tenantId + ":" + mobileHash;
+    }
+
+    private String ipKey(String clientIp) {
+        return "ip:" + clientIp;
+    }
+
+    /**
+     * Token bucket whose state is swapped atomically, so no lock is ever taken
+     */
+    private static final class TokenBucket {
+        private final AtomicReference<BucketState> state;
+
+        private TokenBucket(int capacity, long now) {
+            this.state = new AtomicReference<>(new BucketState(capacity, now, 0, 0));
+        }
+
+        /**
+         * Time until the bucket may be dropped: idle period, or the rest of its lockout if longer
+         */
+        private long expiresIn(long now) {
+            long lockedUntil = state.get().lockedUntil();
+            return Math.max(IDLE_NANOS, lockedUntil != 0 ? lockedUntil - now : 0);
+        }
+    }
+
+    /**
+     * Immutable bucket state: available tokens, last refill time, consecutive failures and lockout end (nanoTime, 0 = none)
+     */
+    private record BucketState(double tokens, long refilledAt, int failures, long lockedUntil) {
+    }
+}
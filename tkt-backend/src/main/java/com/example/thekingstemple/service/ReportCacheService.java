@@ -0,0 +1,216 @@
+package com.example.thekingstemple.service;
+
+import com.example.thekingstemple.config.PgNotificationListener;
+import com.example.thekingstemple.dto.response.ApiResponse;
+import com.example.thekingstemple.dto.response.DailyReportResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory cache of serialized daily reports for past dates.
+ * Payloads are stored per tenant as pre-encoded JSON bytes together with a strong ETag,
+ * so repeat requests are answered without touching the database or decrypting anything.
+ * Each tenant has a generation bumped on every eviction; a report built before an eviction is not cached.
+ * Evictions are broadcast to other instances via LISTEN/NOTIFY, and everything is dropped when the
+ * notification listener reconnects, since evictions sent while disconnected are lost.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReportCacheService {
+
+    private static final ZoneId IST_ZONE = ZoneId.of("Asia/Kolkata");
+    private static final String EVICT_CHANNEL = "report_cache_evict";
+
+    private final ObjectMapper objectMapper;
+    private final PgNotificationListener notificationListener;
+
+    @Value("${reports.cache.max-dates-per-tenant:366}")
+    private int maxDatesPerTenant;
+
+    // tenantId -> (date -> cached payload); sorted by date so the oldest entry is evicted first
+    private final Map<String, ConcurrentSkipListMap<LocalDate, CachedReport>> cache = new ConcurrentHashMap<>();
+
+    // tenantId -> eviction generation
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    // Identifies notifications sent by this instance, which are already applied locally
+    private final String instanceId = UUID.randomUUID().toString();
+
+    @PostConstruct
+    public void init() {
+        notificationListener.subscribe(EVICT_CHANNEL, this::onEvictNotification);
+        notificationListener.onReconnect(this::evictAll);
+    }
+
+    /**
+     * Whether a report for the given date can be cached (strictly before today in IST)
+     */
+    public boolean isCacheable(LocalDate date) {
+        return date.isBefore(LocalDate.now(IST_ZONE));
+    }
+
+    /**
+     * Current eviction generation of a tenant; read it before building a report and pass it to put
+     */
+    public long generation(String tenantId) {
+        if (tenantId == null) {
+            return 0;
+        }
+        return generations.computeIfAbsent(tenantId, key -> new AtomicLong()).get();
+    }
+
+    /**
+     * Get cached report payload for a tenant and date
+     *
+     * @return cached payload, or null if not cached
+     */
+    public CachedReport get(String tenantId, LocalDate date) {
+        if (tenantId == null) {
+            return null;
+        }
+        ConcurrentSkipListMap<LocalDate, CachedReport> tenantCache = cache.get(tenantId);
+        return tenantCache != null ? tenantCache.get(date) : null;
+    }
+
+    /**
+     * Serialize a report into its API envelope and cache it for the tenant,
+     * unless the tenant was evicted since the report was built
+     *
+     * @param generation The tenant's generation read before the report was built
+     */
+    public CachedReport put(String tenantId, LocalDate date, long generation, DailyReportResponse report) {
+        CachedReport cachedReport = encode(report);
+        if (tenantId == null || !isCacheable(date) || generation(tenantId) != generation) {
+            return cachedReport;
+        }
+
+        ConcurrentSkipListMap<LocalDate, CachedReport> tenantCache =
+                cache.computeIfAbsent(tenantId, key -> new ConcurrentSkipListMap<>());
+        tenantCache.put(date, cachedReport);
+        // An eviction between the check above and the put must not leave the stale report behind
+        if (generation(tenantId) != generation) {
+            tenantCache.remove(date, cachedReport);
+            return cachedReport;
+        }
+
+        // Keep the cache bounded: drop the oldest dates first
+        while (tenantCache.size() > maxDatesPerTenant) {
+            tenantCache.pollFirstEntry();
+        }
+
+        log.debug("Cached daily report for tenant: {}, date: {} ({} bytes, etag: {})",
+                tenantId, date, cachedReport.body().length, cachedReport.etag());
+        return cachedReport;
+    }
+
+    /**
+     * Evict all cached reports of a tenant.
+     * Reports embed vehicle details and registered-vehicle totals, so vehicle writes invalidate them.
+     * When called inside a transaction, eviction happens after commit so a concurrent reader
+     * cannot re-populate the cache with pre-commit data.
+     */
+    public void evictTenant(String tenantId) {
+        if (tenantId == null) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictLocal(tenantId);
+                }
+            });
+        } else {
+            evictLocal(tenantId);
+        }
+
+        // NOTIFY is transactional: other instances evict once the write commits
+        notificationListener.publish(EVICT_CHANNEL, instanceId + "|" + tenantId);
+    }
+
+    private void evictLocal(String tenantId) {
+        // Bump first, so a put racing with the removal sees the new generation
+        generations.computeIfAbsent(tenantId, key -> new AtomicLong()).incrementAndGet();
+        cache.remove(tenantId);
+        log.debug("Evicted cached reports for tenant: {}", tenantId);
+    }
+
+    private void onEvictNotification(String payload) {
+        String[] parts = payload.split("\\|");
+        if (parts.length != 2 || parts[0].equals(instanceId)) {
+            return;
+        }
+        evictLocal(parts[1]);
+    }
+
+    private void evictAll() {
+        generations.values().forEach(AtomicLong::incrementAndGet);
+        cache.clear();
+        log.info("Cleared cached reports after notification listener (re)connect");
+    }
+
+    /**
+     * Encode a report as the JSON bytes of its ApiResponse envelope and compute a strong ETag
+     */
+    private CachedReport encode(DailyReportResponse report) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(ApiResponse.success(report));
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            String etag = "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+            return new CachedReport(body, etag);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize daily report", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 algorithm not available", e);
+        }
+    }
+
+    /**
+     * Pre-encoded report payload with its strong ETag
+     */
+    public record CachedReport(byte[] body, String etag) {
+
+        /**
+         * Check an If-None-Match header value against this payload's ETag
+         */
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+                return false;
+            }
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.equals("*")) {
+                    return true;
+                }
+                // If-None-Match uses weak comparison
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals(etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
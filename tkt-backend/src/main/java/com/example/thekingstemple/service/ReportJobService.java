@@ -0,0 +1,319 @@
+package com.example.thekingstemple.service;
+
+import com.example.thekingstemple.dto.request.CreateReportJobRequest;
+import com.example.thekingstemple.dto.response.ReportJobResponse;
+import com.example.thekingstemple.dto.response.VisitResponse;
+import com.example.thekingstemple.exception.ResourceNotFoundException;
+import com.example.thekingstemple.exception.TooManyRequestsException;
+import com.example.thekingstemple.util.TenantContext;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service for asynchronous report jobs.
+ * Large range reports and exports run on a bounded background executor instead of a request thread;
+ * each day is read in its own short transaction and rows are streamed to a private file through StorageService.
+ * Exports contain decrypted owner details, so they are never given a public URL: the submitting user
+ * downloads them through GET /reports/jobs/{id}/result.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReportJobService {
+
+    private static final ZoneId IST_ZONE = ZoneId.of("Asia/Kolkata");
+    private static final String RESULT_FOLDER = "reports/jobs";
+
+    private final AttendanceService attendanceService;
+    private final StorageService storageService;
+    private final ObjectMapper objectMapper;
+
+    @Qualifier("reportJobExecutor")
+    private final ThreadPoolTaskExecutor reportJobExecutor;
+
+    @Value("${reports.jobs.max-active-per-tenant:2}")
+    private int maxActivePerTenant;
+
+    @Value("${reports.jobs.max-range-days:366}")
+    private long maxRangeDays;
+
+    @Value("${reports.jobs.result-ttl-minutes:60}")
+    private long resultTtlMinutes;
+
+    private final Map<String, ReportJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> activeJobsPerTenant = new ConcurrentHashMap<>();
+
+    /**
+     * Submit a new report job for the current tenant
+     */
+    public ReportJobResponse submit(CreateReportJobRequest request, Long userId) {
+        String tenantId = TenantContext.getTenantId();
+        if (tenantId == null) {
+            throw new IllegalStateException("Tenant context is not set. Cannot submit report job without tenant.");
+        }
+
+        LocalDate startDate = request.getStartDate();
+        LocalDate endDate = request.getEndDate();
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+        long totalDays = ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        if (totalDays > maxRangeDays) {
+            throw new IllegalArgumentException(
+                    String.format("Date range exceeds maximum of %d days", maxRangeDays));
+        }
+
+        // Per-tenant limit so one campus cannot occupy every worker
+        AtomicInteger active = activeJobsPerTenant.computeIfAbsent(tenantId, key -> new AtomicInteger());
+        if (active.incrementAndGet() > maxActivePerTenant) {
+            active.decrementAndGet();
+            throw new TooManyRequestsException(
+                    String.format("Campus already has %d report jobs in progress", maxActivePerTenant), 30);
+        }
+
+        CreateReportJobRequest.Format format =
+                request.getFormat() != null ? request.getFormat() : CreateReportJobRequest.Format.JSON;
+        ReportJob job = new ReportJob(UUID.randomUUID().toString(), tenantId, userId,
+                startDate, endDate, format, totalDays, LocalDateTime.now(IST_ZONE));
+        jobs.put(job.id, job);
+
+        try {
+            // Tenant context is propagated to the worker by the executor's task decorator
+            reportJobExecutor.execute(() -> run(job));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.id);
+            active.decrementAndGet();
+            log.warn("Report job queue is full, rejecting job for tenant: {}", tenantId);
+            throw new TooManyRequestsException("Report job queue is full, please retry later", 60);
+        }
+
+        log.info("Report job {} queued for tenant: {} ({} to {}, {})", job.id, tenantId, startDate, endDate, format);
+        return mapToResponse(job);
+    }
+
+    /**
+     * Get status of a report job submitted by the given user in the current tenant
+     */
+    public ReportJobResponse getJob(String jobId, Long userId) {
+        ReportJob job = jobs.get(jobId);
+        if (job == null || !job.tenantId.equals(TenantContext.getTenantId()) || !job.userId.equals(userId)) {
+            throw new ResourceNotFoundException("Report job", "id", jobId);
+        }
+        return mapToResponse(job);
+    }
+
+    /**
+     * Open the result of a completed report job submitted by the given user in the current tenant
+     */
+    public JobResult openResult(String jobId, Long userId) throws IOException {
+        ReportJob job = jobs.get(jobId);
+        if (job == null || !job.tenantId.equals(TenantContext.getTenantId()) || !job.userId.equals(userId)
+                || job.resultFile == null) {
+            throw new ResourceNotFoundException("Report job result", "id", jobId);
+        }
+        boolean csv = job.format == CreateReportJobRequest.Format.CSV;
+        return new JobResult(storageService.openFile(job.resultFile),
+                csv ? "text/csv" : "application/json",
+                "report-" + job.startDate + "-" + job.endDate + (csv ? ".csv" : ".json"));
+    }
+
+    /**
+     * Stored result of a report job; the stream is closed by the caller
+     */
+    public record JobResult(InputStream content, String contentType, String fileName) {
+    }
+
+    /**
+     * Execute a report job on the worker thread
+     */
+    private void run(ReportJob job) {
+        job.status = ReportJobResponse.Status.RUNNING;
+        log.info("Report job {} started for tenant: {}", job.id, job.tenantId);
+
+        try {
+            if (job.format == CreateReportJobRequest.Format.CSV) {
+                job.resultFile = storageService.writePrivateFile(
+                        "text/csv", RESULT_FOLDER, job.id + ".csv", out -> writeCsv(job, out));
+            } else {
+                job.resultFile = storageService.writePrivateFile(
+                        "application/json", RESULT_FOLDER, job.id + ".json", out -> writeJson(job, out));
+            }
+            job.status = ReportJobResponse.Status.COMPLETED;
+            log.info("Report job {} completed: {} visits over {} days", job.id, job.totalVisits.get(), job.totalDays);
+        } catch (Exception e) {
+            log.error("Report job {} failed: {}", job.id, e.getMessage(), e);
+            job.error = e.getMessage();
+            job.status = ReportJobResponse.Status.FAILED;
+        } finally {
+            job.completedAt = LocalDateTime.now(IST_ZONE);
+            job.expiresAt = job.completedAt.plusMinutes(resultTtlMinutes);
+            activeJobsPerTenant.get(job.tenantId).decrementAndGet();
+        }
+    }
+
+    /**
+     * Stream visits as a JSON array, one day (and one short transaction) at a time
+     */
+    private void writeJson(ReportJob job, OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            // The storage service closes the stream
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartArray();
+            for (LocalDate date = job.startDate; !date.isAfter(job.endDate); date = date.plusDays(1)) {
+                List<VisitResponse> visits = attendanceService.getVisitsForDate(date);
+                for (VisitResponse visit : visits) {
+                    generator.writeObject(visit);
+                }
+                job.recordDay(visits.size());
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    /**
+     * Export visits as CSV, one day (and one short transaction) at a time
+     */
+    private void writeCsv(ReportJob job, OutputStream out) throws IOException {
+        // Flushed, not closed: the storage service closes the stream
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        writer.write("visit_date,arrived_at,vehicle_number,vehicle_type,owner_name,owner_mobile,marked_by_mobile\n");
+        for (LocalDate date = job.startDate; !date.isAfter(job.endDate); date = date.plusDays(1)) {
+            List<VisitResponse> visits = attendanceService.getVisitsForDate(date);
+            for (VisitResponse visit : visits) {
+                writer.write(String.join(",",
+                        String.valueOf(visit.getVisitDate()),
+                        String.valueOf(visit.getArrivedAt()),
+                        csv(visit.getVehicle().getVehicleNumber()),
+                        String.valueOf(visit.getVehicle().getVehicleType()),
+                        csv(visit.getVehicle().getOwnerName()),
+                        csv(visit.getVehicle().getOwnerMobile()),
+                        csv(visit.getMarkedByMobile())));
+                writer.write("\n");
+            }
+            job.recordDay(visits.size());
+        }
+        writer.flush();
+    }
+
+    /**
+     * Quote a CSV field
+     */
+    private String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    /**
+     * Remove expired jobs and their stored results
+     */
+    @Scheduled(fixedDelayString = "${reports.jobs.cleanup-interval-ms:300000}")
+    public void cleanupExpiredJobs() {
+        LocalDateTime now = LocalDateTime.now(IST_ZONE);
+        int removed = 0;
+
+        Iterator<ReportJob> iterator = jobs.values().iterator();
+        while (iterator.hasNext()) {
+            ReportJob job = iterator.next();
+            if (job.expiresAt != null && job.expiresAt.isBefore(now)) {
+                if (job.resultFile != null) {
+                    storageService.deleteFile(job.resultFile);
+                }
+                iterator.remove();
+                removed++;
+            }
+        }
+
+        if (removed > 0) {
+            log.info("Removed {} expired report jobs", removed);
+        }
+    }
+
+    /**
+     * Map job state to ReportJobResponse DTO
+     */
+    private ReportJobResponse mapToResponse(ReportJob job) {
+        long processedDays = job.processedDays.get();
+        return ReportJobResponse.builder()
+                .id(job.id)
+                .status(job.status)
+                .format(job.format)
+                .startDate(job.startDate)
+                .endDate(job.endDate)
+                .progress((int) (processedDays * 100 / job.totalDays))
+                .processedDays(processedDays)
+                .totalDays(job.totalDays)
+                .totalVisits(job.totalVisits.get())
+                .resultUrl(job.resultFile != null ? "/reports/jobs/" + job.id + "/result" : null)
+                .error(job.error)
+                .createdAt(job.createdAt)
+                .completedAt(job.completedAt)
+                .expiresAt(job.expiresAt)
+                .build();
+    }
+
+    /**
+     * In-memory state of a report job
+     */
+    private static class ReportJob {
+        private final String id;
+        private final String tenantId;
+        private final Long userId;
+        private final LocalDate startDate;
+        private final LocalDate endDate;
+        private final CreateReportJobRequest.Format format;
+        private final long totalDays;
+        private final LocalDateTime createdAt;
+        private final AtomicLong processedDays = new AtomicLong();
+        private final AtomicLong totalVisits = new AtomicLong();
+        private volatile ReportJobResponse.Status status = ReportJobResponse.Status.QUEUED;
+        private volatile String resultFile;
+        private volatile String error;
+        private volatile LocalDateTime completedAt;
+        private volatile LocalDateTime expiresAt;
+
+        private ReportJob(String id, String tenantId, Long userId, LocalDate startDate, LocalDate endDate,
+                          CreateReportJobRequest.Format format, long totalDays, LocalDateTime createdAt) {
+            this.id = id;
+            this.tenantId = tenantId;
+            this.userId = userId;
+            this.startDate = startDate;
+            this.endDate = endDate;
+            this.format = format;
+            this.totalDays = totalDays;
+            this.createdAt = createdAt;
+        }
+
+        private void recordDay(int visits) {
+            totalVisits.addAndGet(visits);
+            processedDays.incrementAndGet();
+        }
+    }
+}
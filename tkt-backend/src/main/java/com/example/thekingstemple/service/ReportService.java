@@ -58,6 +58,16 @@ public class ReportService {
                 .build();
     }
 
+    /**
+     * Generate daily report for a specific date, reading from the primary
+     * Used for reports that get cached: a replica may lag behind, and a report built from it would
+     * stay stale in the cache until the next eviction. Read-write transactions are routed to the primary.
+     */
+    @Transactional
+    public DailyReportResponse getDailyReportFromPrimary(LocalDate date) {
+        return getDailyReport(date);
+    }
+
     /**
      * Generate daily report for today
      */
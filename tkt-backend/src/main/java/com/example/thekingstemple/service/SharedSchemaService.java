@@ -0,0 +1,193 @@
+package com.example.thekingstemple.service;
+
+import com.example.thekingstemple.exception.ResourceNotFoundException;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Shared-schema multitenancy (multitenancy.mode=shared).
+ * users, vehicles, visits and audit_logs live once in schema "shared" with a tenant_id column,
+ * list-partitioned per campus and isolated by row-level security on the app.tenant_id setting
+ * (see db/shared-schema.sql). Also migrates existing campus schemas into the shared tables.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SharedSchemaService {
+
+    public static final String SHARED_SCHEMA = "shared";
+
+    private static final ZoneId IST_ZONE = ZoneId.of("Asia/Kolkata");
+
+    private static final String SCHEMA_SCRIPT = "db/shared-schema.sql";
+    private static final String PARTITION_TEMPLATE = "db/shared-partition.sql";
+
+    // Copy order follows foreign keys; ids are kept, the tenant id comes from the source schema
+    private static final Map<String, String> MIGRATED_TABLES = new LinkedHashMap<>();
+
+    static {
+        MIGRATED_TABLES.put("users",
+                "mobile_number, mobile_hash, pin_hash, role, active, created_at, updated_at");
+        MIGRATED_TABLES.put("vehicles",
+                "owner_name, owner_mobile, owner_mobile_hash, vehicle_number, vehicle_number_hash, vehicle_type, "
+                        + "created_by_id, active, car_image_url, key_image_url, created_at, updated_at");
+        MIGRATED_TABLES.put("visits",
+                "vehicle_id, visit_date, arrived_at, marked_by_id, created_at");
+        MIGRATED_TABLES.put("audit_logs",
+                "user_id, action, entity_type, entity_id, details, ip_address, timestamp");
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final TenantRegistry tenantRegistry;
+
+    @Value("${multitenancy.mode:schema}")
+    private String mode;
+
+    @PostConstruct
+    public void init() {
+        if (!isEnabled()) {
+            return;
+        }
+        initializeSchema();
+        // Campuses provisioned on other instances get their partitions here as well
+        tenantRegistry.addChangeListener(tenantIds -> tenantIds.forEach(this::ensurePartitions));
+        log.info("Shared-schema multitenancy enabled for campuses: {}", tenantRegistry.getTenantIds());
+    }
+
+    public boolean isEnabled() {
+        return SHARED_SCHEMA.equals(mode);
+    }
+
+    /**
+     * Create the shared tables, policies and a partition for every registered campus (idempotent)
+     */
+    public void initializeSchema() {
+        List<String> statements = loadStatements(SCHEMA_SCRIPT, null);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            statements.forEach(jdbcTemplate::execute);
+            tenantRegistry.getTenantIds().forEach(tenantId -> partitionStatements(tenantId).forEach(jdbcTemplate::execute));
+        });
+    }
+
+    /**
+     * Create the partitions of a campus if missing
+     */
+    public void ensurePartitions(String tenantId) {
+        List<String> statements = partitionStatements(tenantId);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                statements.forEach(jdbcTemplate::execute));
+    }
+
+    /**
+     * DDL statements creating the partitions of a campus, for callers running their own transaction
+     */
+    public List<String> partitionStatements(String tenantId) {
+        // Tenant id is used in table names, so it must pass validation before anything else
+        if (!TenantRegistry.isValidTenantId(tenantId)) {
+            throw new IllegalArgumentException("Invalid campus id: " + tenantId);
+        }
+        return loadStatements(PARTITION_TEMPLATE, tenantId);
+    }
+
+    /**
+     * Copy a campus schema into the shared tables.
+     * Safe to re-run: rows already present are skipped. The campus schema itself is left untouched.
+     *
+     * @return number of rows copied per table
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    public Map<String, Integer> migrateTenant(String tenantId) {
+        if (!tenantRegistry.isTenant(tenantId) || !TenantRegistry.isValidTenantId(tenantId)) {
+            throw new ResourceNotFoundException("Campus", "id", tenantId);
+        }
+
+        initializeSchema();
+
+        Map<String, Integer> copied = new LinkedHashMap<>();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            // Rows of another campus are written, so lift the tenant policy for this transaction only
+            jdbcTemplate.queryForObject("SELECT set_config('app.cross_tenant', 'on', true)", String.class);
+
+            // Audit rows go into monthly sub-partitions, which otherwise only exist from the current month
+            createAuditPartitions(tenantId);
+
+            MIGRATED_TABLES.forEach((table, columns) -> copied.put(table, jdbcTemplate.update(
+                    "INSERT INTO " + SHARED_SCHEMA + "." + table + " (id, tenant_id, " + columns + ")"
+                            + " SELECT id, ?, " + columns + " FROM " + tenantId + "." + table
+                            + " ON CONFLICT DO NOTHING",
+                    tenantId)));
+
+            // Ids were copied as-is: move each sequence past the highest id of any campus
+            for (String table : MIGRATED_TABLES.keySet()) {
+                jdbcTemplate.queryForObject(
+                        "SELECT setval(pg_get_serial_sequence(?, 'id'), GREATEST((SELECT MAX(id) FROM "
+                                + SHARED_SCHEMA + "." + table + "), 1))",
+                        Long.class, SHARED_SCHEMA + "." + table);
+            }
+        });
+
+        log.info("Migrated campus '{}' into shared schema: {}", tenantId, copied);
+        return copied;
+    }
+
+    /**
+     * Create the monthly audit partitions of a campus covering every row of its schema, up to the current month
+     */
+    private void createAuditPartitions(String tenantId) {
+        Map<String, Object> range = jdbcTemplate.queryForMap(
+                "SELECT MIN(timestamp)::date AS oldest, MAX(timestamp)::date AS newest FROM " + tenantId + ".audit_logs");
+        YearMonth current = YearMonth.now(IST_ZONE);
+        YearMonth month = range.get("oldest") instanceof Date oldest ? YearMonth.from(oldest.toLocalDate()) : current;
+        YearMonth last = range.get("newest") instanceof Date newest && YearMonth.from(newest.toLocalDate()).isAfter(current)
+                ? YearMonth.from(newest.toLocalDate()) : current;
+
+        for (; !month.isAfter(last); month = month.plusMonths(1)) {
+            jdbcTemplate.execute(AuditPartitionService.partitionStatement(SHARED_SCHEMA, "audit_logs_" + tenantId, month));
+        }
+    }
+
+    /**
+     * Load a SQL script, substitute the tenant placeholder and split it into statements
+     */
+    private List<String> loadStatements(String resource, String tenantId) {
+        String script;
+        try {
+            script = new ClassPathResource(resource).getContentAsString(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + resource, e);
+        }
+
+        String sql = script.lines()
+                .filter(line -> !line.trim().startsWith("--"))
+                .collect(Collectors.joining("\n"));
+        if (tenantId != null) {
+            sql = sql.replace("${tenant}", tenantId);
+        }
+
+        return Arrays.stream(sql.split(";"))
+                .map(String::trim)
+                .filter(statement -> !statement.isEmpty())
+                .collect(Collectors.toList());
+    }
+}
@@ -3,6 +3,10 @@ package com.example.thekingstemple.service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
 
 /**
  * Interface for storage service implementations
@@ -20,6 +24,49 @@ public interface StorageService {
      */
     String uploadFile(MultipartFile file, String folder) throws IOException;
 
+    /**
+     * Stream generated content (e.g. report exports) to a private, tenant-specific location.
+     * Unlike uploaded photos, private files have no public URL and are only readable through openFile.
+     *
+     * @param contentType The MIME type of the content (e.g., "text/csv")
+     * @param folder      The folder path (e.g., "reports/jobs")
+     * @param fileName    The file name within the folder
+     * @param writer      Writes the content; must not close the stream
+     * @return The storage URI or path of the file, for openFile and deleteFile
+     * @throws IOException If writing fails; nothing is left behind
+     */
+    String writePrivateFile(String contentType, String folder, String fileName, ContentWriter writer) throws IOException;
+
+    /**
+     * Open a stored file for reading; the content is streamed, not loaded into memory
+     *
+     * @param fileUrl The URL or path returned when the file was stored
+     * @return A stream over the file content, to be closed by the caller
+     * @throws IOException If the file does not exist or cannot be read
+     */
+    InputStream openFile(String fileUrl) throws IOException;
+
+    /**
+     * Get what is needed to serve a stored file over HTTP
+     *
+     * @param fileUrl The URL or path returned when the file was stored
+     * @return Size, content type and a hash of the content (for ETags)
+     * @throws java.nio.file.NoSuchFileException If the file does not exist
+     * @throws IOException                       If the file cannot be read
+     */
+    StoredFile stat(String fileUrl) throws IOException;
+
+    /**
+     * Open a byte range of a stored file for reading
+     *
+     * @param fileUrl The URL or path returned when the file was stored
+     * @param start   First byte to read
+     * @param end     Byte after the last one to read
+     * @return A channel over the range, to be closed by the caller
+     * @throws IOException If the file does not exist or cannot be read
+     */
+    ReadableByteChannel openRange(String fileUrl, long start, long end) throws IOException;
+
     /**
      * Delete a file
      *
@@ -27,4 +74,20 @@ public interface StorageService {
      * @return true if deletion was successful, false otherwise
      */
     boolean deleteFile(String fileUrl);
+
+    /**
+     * Producer of streamed file content
+     */
+    @FunctionalInterface
+    interface ContentWriter {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Metadata of a stored file
+     *
+     * @param localPath The file on the local filesystem if the backend has one (allows zero-copy transfer), else null
+     */
+    record StoredFile(long size, String contentType, String contentHash, Path localPath) {
+    }
 }
@@ -0,0 +1,165 @@
+package com.example.thekingstemple.service;
+
+import com.example.thekingstemple.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-campus request concurrency bulkheads (off by default, bulkhead.enabled).
+ * Every campus has two permit budgets: INTERACTIVE for gate and lookup requests and HEAVY for range
+ * reports and dashboards, so one campus running long reports cannot crowd out the others, nor its own
+ * gates. A permit is held for the whole request, not only while a connection is checked out, so budgets
+ * count concurrent requests: size INTERACTIVE for the gate devices of a campus, and HEAVY small enough
+ * that the heavy budgets of all campuses leave room in the connection pool. A request waits at most
+ * max-wait-ms for a permit and is then rejected with 429. Budgets are bulkhead.<budget>.max-concurrent
+ * per campus, or bulkhead.<budget>.sizes.<tenant> for one campus.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TenantBulkheadService {
+
+    public enum Budget { INTERACTIVE, HEAVY }
+
+    private final MeterRegistry meterRegistry;
+    private final Environment environment;
+    private final TenantRegistry tenantRegistry;
+
+    @Value("${bulkhead.enabled:false}")
+    private boolean enabled;
+
+    private final Map<BulkheadKey, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        if (enabled) {
+            tenantRegistry.addChangeListener(this::removeDeactivatedBulkheads);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Take a permit of the campus budget, waiting up to the budget's max wait, or reject with 429
+     *
+     * @return permit to release once the request completes
+     */
+    public Permit acquire(String tenantId, Budget budget) {
+        Bulkhead bulkhead = bulkheads.computeIfAbsent(new BulkheadKey(tenantId, budget), this::createBulkhead);
+
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = bulkhead.semaphore.tryAcquire(bulkhead.maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        bulkhead.queueTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        if (!acquired) {
+            bulkhead.rejections.increment();
+            log.warn("Campus {} exceeded its {} database concurrency of {}, rejecting request",
+                    tenantId, budget, bulkhead.limit);
+            throw new TooManyRequestsException(
+                    "Too many concurrent requests for this campus, please retry shortly", bulkhead.retryAfterSeconds);
+        }
+        return new Permit(bulkhead.semaphore);
+    }
+
+    private Bulkhead createBulkhead(BulkheadKey key) {
+        String prefix = "bulkhead." + key.budget().name().toLowerCase(Locale.ROOT) + ".";
+        boolean heavy = key.budget() == Budget.HEAVY;
+
+        int limit = environment.getProperty(prefix + "sizes." + key.tenantId(), Integer.class,
+                environment.getProperty(prefix + "max-concurrent", Integer.class, heavy ? 2 : 16));
+        long maxWaitMs = environment.getProperty(prefix + "max-wait-ms", Long.class, heavy ? 0L : 200L);
+        long retryAfterSeconds = environment.getProperty(prefix + "retry-after-seconds", Long.class, heavy ? 10L : 1L);
+
+        Semaphore semaphore = new Semaphore(limit, true);
+        String tenant = key.tenantId();
+        String budget = key.budget().name().toLowerCase(Locale.ROOT);
+
+        Timer queueTimer = Timer.builder("bulkhead.queue.time")
+                .description("Time spent waiting for a campus bulkhead permit")
+                .tag("tenant", tenant).tag("budget", budget)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Counter rejections = Counter.builder("bulkhead.rejections")
+                .description("Requests rejected because the campus budget was exhausted")
+                .tag("tenant", tenant).tag("budget", budget)
+                .register(meterRegistry);
+        Gauge active = Gauge.builder("bulkhead.active", semaphore, s -> limit - s.availablePermits())
+                .description("Permits in use").tag("tenant", tenant).tag("budget", budget)
+                .register(meterRegistry);
+        Gauge queued = Gauge.builder("bulkhead.queued", semaphore, Semaphore::getQueueLength)
+                .description("Requests waiting for a permit").tag("tenant", tenant).tag("budget", budget)
+                .register(meterRegistry);
+        Gauge limitGauge = Gauge.builder("bulkhead.limit", semaphore, s -> limit)
+                .description("Permits of the budget").tag("tenant", tenant).tag("budget", budget)
+                .register(meterRegistry);
+
+        log.info("Created {} bulkhead for campus {} ({} permits, max wait {} ms)", budget, tenant, limit, maxWaitMs);
+        return new Bulkhead(semaphore, limit, maxWaitMs, retryAfterSeconds, queueTimer, rejections,
+                List.of(queueTimer, rejections, active, queued, limitGauge));
+    }
+
+    /**
+     * Drop the bulkheads of campuses that are no longer active. Active campuses keep theirs, so permits
+     * held by in-flight requests always return to the semaphore that new requests acquire from.
+     */
+    private void removeDeactivatedBulkheads(List<String> tenantIds) {
+        bulkheads.entrySet().removeIf(entry -> {
+            if (tenantIds.contains(entry.getKey().tenantId())) {
+                return false;
+            }
+            entry.getValue().meters().forEach(meterRegistry::remove);
+            log.info("Removed {} bulkhead of deactivated campus {}", entry.getKey().budget(), entry.getKey().tenantId());
+            return true;
+        });
+    }
+
+    /**
+     * Permit held for the duration of a request
+     */
+    public static final class Permit {
+        private final Semaphore semaphore;
+        private boolean released;
+
+        private Permit(Semaphore semaphore) {
+            this.semaphore = semaphore;
+        }
+
+        public void release() {
+            if (!released) {
+                released = true;
+                semaphore.release();
+            }
+        }
+    }
+
+    private record BulkheadKey(String tenantId, Budget budget) {
+    }
+
+    private record Bulkhead(Semaphore semaphore, int limit, long maxWaitMs, long retryAfterSeconds,
+                            Timer queueTimer, Counter rejections, List<Meter> meters) {
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.thekingstemple.service;
+
+import com.example.thekingstemple.config.PgNotificationListener;
+import com.example.thekingstemple.dto.response.TenantResponse;
+import com.example.thekingstemple.exception.DuplicateResourceException;
+import com.example.thekingstemple.exception.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Online provisioning of campuses (tenants).
+ * Creates the campus schema from db/tenant-schema.sql and registers it in public.tenants in one
+ * transaction, then seeds the campus admin. Other instances pick the campus up via the registry's
+ * change notification, so no redeploy is needed. In shared-schema mode the campus gets its partitions
+ * of the shared tables instead of a schema.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TenantProvisioningService {
+
+    private static final String SCHEMA_TEMPLATE = "db/tenant-schema.sql";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final TenantRegistry tenantRegistry;
+    private final PgNotificationListener notificationListener;
+    private final AdminSeedService adminSeedService;
+    private final SharedSchemaService sharedSchemaService;
+
+    /**
+     * List all active campuses
+     */
+    public List<TenantResponse> getTenants() {
+        return tenantRegistry.getTenants().stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Create a new campus schema, register it and seed its admin user
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    public TenantResponse provision(String tenantId, String displayName) {
+        // Tenant id is used as a schema name in DDL, so it must pass validation before anything else
+        if (!TenantRegistry.isValidTenantId(tenantId)) {
+            throw new IllegalArgumentException("Invalid campus id: " + tenantId);
+        }
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM public.tenants WHERE id = ?", Integer.class, tenantId);
+        if (existing != null && existing > 0) {
+            throw new DuplicateResourceException("Campus", "id", tenantId);
+        }
+
+        List<String> statements = sharedSchemaService.isEnabled()
+                ? sharedSchemaService.partitionStatements(tenantId)
+                : loadSchemaStatements(tenantId);
+
+        // DDL is transactional in PostgreSQL: schema (or partitions), tables and registry row commit together
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (String statement : statements) {
+                jdbcTemplate.execute(statement);
+            }
+            jdbcTemplate.update("""
+                    INSERT INTO public.tenants (id, display_name, display_order)
+                    SELECT ?, ?, COALESCE(MAX(display_order), 0) + 1 FROM public.tenants""",
+                    tenantId, displayName);
+            // Delivered to other instances on commit
+            notificationListener.publish(TenantRegistry.CHANGE_CHANNEL, tenantId);
+        });
+
+        // Make the campus visible locally before seeding, so the connection provider accepts it
+        tenantRegistry.refresh();
+        adminSeedService.seedAdmin(tenantId);
+
+        log.info("Provisioned campus '{}' ({})", tenantId, displayName);
+        return tenantRegistry.getTenants().stream()
+                .filter(tenant -> tenant.id().equals(tenantId))
+                .findFirst()
+                .map(this::mapToResponse)
+                .orElseThrow(() -> new IllegalStateException("Provisioned campus not found in registry: " + tenantId));
+    }
+
+    /**
+     * Deactivate a campus. Its schema and data are kept; logins and requests for it are rejected.
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    public void deactivate(String tenantId) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            int updated = jdbcTemplate.update(
+                    "UPDATE public.tenants SET active = false WHERE id = ? AND active = true", tenantId);
+            if (updated == 0) {
+                throw new ResourceNotFoundException("Campus", "id", tenantId);
+            }
+            notificationListener.publish(TenantRegistry.CHANGE_CHANNEL, tenantId);
+        });
+
+        tenantRegistry.refresh();
+        log.info("Deactivated campus '{}'", tenantId);
+    }
+
+    /**
+     * Load the schema template for a tenant and split it into statements
+     */
+    private List<String> loadSchemaStatements(String tenantId) {
+        String template;
+        try {
+            template = new ClassPathResource(SCHEMA_TEMPLATE).getContentAsString(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + SCHEMA_TEMPLATE, e);
+        }
+
+        String sql = template.lines()
+                .filter(line -> !line.trim().startsWith("--"))
+                .collect(Collectors.joining("\n"))
+                .replace("${schema}", tenantId);
+
+        return Arrays.stream(sql.split(";"))
+                .map(String::trim)
+                .filter(statement -> !statement.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    private TenantResponse mapToResponse(TenantRegistry.TenantInfo tenant) {
+        return TenantResponse.builder()
+                .id(tenant.id())
+                .displayName(tenant.displayName())
+                .active(tenant.active())
+                .createdAt(tenant.createdAt())
+                .build();
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.thekingstemple.service;
+
+import com.example.thekingstemple.config.PgNotificationListener;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Registry of campuses (tenants), persisted in public.tenants and cached in memory.
+ * Reads are served from an immutable snapshot; changes are propagated to all instances via
+ * LISTEN/NOTIFY with a periodic reload as a safety net.
+ * Tenant ids double as schema names, so only ids matching TENANT_ID_PATTERN are ever accepted.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TenantRegistry {
+
+    public static final String CHANGE_CHANNEL = "tenant_registry_changed";
+
+    private static final Pattern TENANT_ID_PATTERN = Pattern.compile("^[a-z][a-z0-9_]{1,19}$");
+    private static final Set<String> RESERVED_IDS = Set.of("public", "information_schema", "shared");
+
+    // Campuses present before the registry existed; seeded into an empty table
+    private static final List<String> DEFAULT_TENANTS = List.of("east", "west", "north", "south");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PgNotificationListener notificationListener;
+
+    private final List<Consumer<List<String>>> changeListeners = new CopyOnWriteArrayList<>();
+
+    private volatile Map<String, TenantInfo> tenants = Collections.emptyMap();
+
+    @PostConstruct
+    public void init() {
+        jdbcTemplate.execute("""
+                CREATE TABLE IF NOT EXISTS public.tenants (
+                    id VARCHAR(20) PRIMARY KEY,
+                    display_name VARCHAR(100) NOT NULL,
+                    display_order INT NOT NULL DEFAULT 0,
+                    active BOOLEAN NOT NULL DEFAULT true,
+                    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+                )""");
+
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM public.tenants", Integer.class);
+        if (count != null && count == 0) {
+            for (int i = 0; i < DEFAULT_TENANTS.size(); i++) {
+                String id = DEFAULT_TENANTS.get(i);
+                jdbcTemplate.update(
+                        "INSERT INTO public.tenants (id, display_name, display_order) VALUES (?, ?, ?) ON CONFLICT (id) DO NOTHING",
+                        id, defaultDisplayName(id), i + 1);
+            }
+            log.info("Seeded tenant registry with default campuses: {}", DEFAULT_TENANTS);
+        }
+
+        refresh();
+        notificationListener.subscribe(CHANGE_CHANNEL, payload -> refresh());
+        notificationListener.onReconnect(this::refresh);
+    }
+
+    /**
+     * Reload active tenants from the database and notify listeners if the set changed
+     */
+    @Scheduled(initialDelayString = "${multitenancy.registry.refresh-interval-ms:60000}",
+            fixedDelayString = "${multitenancy.registry.refresh-interval-ms:60000}")
+    public synchronized void refresh() {
+        Map<String, TenantInfo> loaded = new LinkedHashMap<>();
+        jdbcTemplate.query(
+                "SELECT id, display_name, active, created_at FROM public.tenants WHERE active = true ORDER BY display_order, id",
+                rs -> {
+                    String id = rs.getString("id");
+                    if (!isValidTenantId(id)) {
+                        log.error("Ignoring tenant with invalid id in registry: {}", id);
+                        return;
+                    }
+                    loaded.put(id, new TenantInfo(id, rs.getString("display_name"), rs.getBoolean("active"),
+                            rs.getObject("created_at", LocalDateTime.class)));
+                });
+
+        boolean changed = !loaded.keySet().equals(tenants.keySet());
+        tenants = Collections.unmodifiableMap(loaded);
+
+        if (changed) {
+            List<String> tenantIds = getTenantIds();
+            log.info("Tenant registry loaded {} campuses: {}", tenantIds.size(), tenantIds);
+            for (Consumer<List<String>> listener : changeListeners) {
+                try {
+                    listener.accept(tenantIds);
+                } catch (Exception e) {
+                    log.error("Tenant change listener failed: {}", e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Register a callback invoked with the new tenant ids whenever the set of active tenants changes
+     */
+    public void addChangeListener(Consumer<List<String>> listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * Ids of all active tenants, in display order
+     */
+    public List<String> getTenantIds() {
+        return new ArrayList<>(tenants.keySet());
+    }
+
+    /**
+     * All active tenants, in display order
+     */
+    public List<TenantInfo> getTenants() {
+        return new ArrayList<>(tenants.values());
+    }
+
+    /**
+     * Whether the id belongs to an active tenant
+     */
+    public boolean isTenant(String tenantId) {
+        return tenantId != null && tenants.containsKey(tenantId);
+    }
+
+    /**
+     * Display name of a tenant, falling back to the capitalized id
+     */
+    public String getDisplayName(String tenantId) {
+        TenantInfo info = tenants.get(tenantId);
+        return info != null ? info.displayName() : defaultDisplayName(tenantId);
+    }
+
+    /**
+     * Whether an id is syntactically valid for use as a tenant schema name
+     */
+    public static boolean isValidTenantId(String tenantId) {
+        return tenantId != null
+                && TENANT_ID_PATTERN.matcher(tenantId).matches()
+                && !RESERVED_IDS.contains(tenantId)
+                && !tenantId.startsWith("pg_");
+    }
+
+    private static String defaultDisplayName(String tenantId) {
+        return tenantId.substring(0, 1).toUpperCase() + tenantId.substring(1);
+    }
+
+    /**
+     * Registered campus
+     */
+    public record TenantInfo(String id, String displayName, boolean active, LocalDateTime createdAt) {
+    }
+}
@@ -1,27 +1,74 @@
 package com.example.thekingstemple.service;
 
+import com.example.thekingstemple.config.PgNotificationListener;
 import com.example.thekingstemple.entity.TokenBlacklist;
 import com.example.thekingstemple.repository.TokenBlacklistRepository;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Service for managing blacklisted JWT tokens
+ * Revoked token hashes are mirrored in memory: a Bloom filter answers the common "not revoked" case,
+ * and an exact map of live hashes confirms the rare hits. The mirror is loaded from every campus
+ * schema at startup and kept in sync across instances via LISTEN/NOTIFY; while the listener is
+ * disconnected or the mirror is not loaded, checks go to the database.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class TokenBlacklistService {
 
+    private static final String REVOCATION_CHANNEL = "token_revoked";
+
     private final TokenBlacklistRepository tokenBlacklistRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TenantRegistry tenantRegistry;
+    private final PgNotificationListener notificationListener;
+
+    @Value("${multitenancy.mode:schema}")
+    private String mode;
+
+    @Value("${security.token-revocation.expected-insertions:100000}")
+    private int expectedInsertions;
+
+    @Value("${security.token-revocation.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    // token hash -> token expiry; only hashes of tokens that have not expired yet
+    private volatile Map<String, LocalDateTime> revokedTokens = new ConcurrentHashMap<>();
+    private volatile BloomFilter<CharSequence> revokedFilter;
+    private volatile boolean loaded;
+
+    @PostConstruct
+    public void init() {
+        notificationListener.subscribe(REVOCATION_CHANNEL, this::onRevocationNotification);
+        // Notifications sent while disconnected are lost, and new campuses bring new tables
+        notificationListener.onReconnect(this::reload);
+        tenantRegistry.addChangeListener(tenantIds -> reload());
+    }
 
     /**
      * Add a token to the blacklist
@@ -46,6 +93,16 @@ public class TokenBlacklistService {
                 .build();
 
         tokenBlacklistRepository.save(blacklistedToken);
+
+        // Update the local mirror once the row is committed; other instances get the NOTIFY on commit
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                addRevoked(tokenHash, expiresAt);
+            }
+        });
+        notificationListener.publish(REVOCATION_CHANNEL, tokenHash + "|" + expiresAt);
+
         log.info("Token blacklisted with reason: {}", reason);
     }
 
@@ -56,7 +113,44 @@ public class TokenBlacklistService {
      */
     public boolean isTokenBlacklisted(String token) {
         String tokenHash = hashToken(token);
-        return tokenBlacklistRepository.existsByTokenHash(tokenHash);
+
+        if (loaded && notificationListener.isConnected()) {
+            // Fast negative: no false negatives, so a miss means the token was never revoked
+            if (!revokedFilter.mightContain(tokenHash)) {
+                return false;
+            }
+            return revokedTokens.containsKey(tokenHash);
+        }
+
+        return existsInAnySchema(tokenHash);
+    }
+
+    /**
+     * Rebuild the in-memory mirror from the blacklist tables of all campus schemas and public
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reload() {
+        try {
+            List<String> schemas = schemas();
+            Map<String, LocalDateTime> loadedTokens = new ConcurrentHashMap<>();
+            jdbcTemplate.query(unionSql(schemas, "SELECT token_hash, expires_at FROM %s.token_blacklist WHERE expires_at > ?"),
+                    rs -> {
+                        loadedTokens.put(rs.getString("token_hash"), rs.getObject("expires_at", LocalDateTime.class));
+                    },
+                    repeatParam(schemas, LocalDateTime.now()));
+
+            BloomFilter<CharSequence> filter = BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8),
+                    Math.max(expectedInsertions, loadedTokens.size() * 2), falsePositiveRate);
+            loadedTokens.keySet().forEach(filter::put);
+
+            revokedTokens = loadedTokens;
+            revokedFilter = filter;
+            loaded = true;
+            log.info("Loaded {} revoked tokens into memory", loadedTokens.size());
+        } catch (Exception e) {
+            loaded = false;
+            log.error("Failed to load revoked tokens, falling back to database checks: {}", e.getMessage(), e);
+        }
     }
 
     /**
@@ -82,6 +176,67 @@ public class TokenBlacklistService {
     public void cleanupExpiredTokens() {
         log.info("Starting cleanup of expired blacklisted tokens");
         tokenBlacklistRepository.deleteByExpiresAtBefore(LocalDateTime.now());
+        // Bloom filters cannot remove entries, so rebuild the mirror without the expired hashes
+        reload();
         log.info("Completed cleanup of expired blacklisted tokens");
     }
+
+    private synchronized void addRevoked(String tokenHash, LocalDateTime expiresAt) {
+        revokedTokens.put(tokenHash, expiresAt);
+        if (revokedFilter != null) {
+            revokedFilter.put(tokenHash);
+        }
+    }
+
+    private void onRevocationNotification(String payload) {
+        String[] parts = payload.split("\\|");
+        if (parts.length != 2) {
+            return;
+        }
+        addRevoked(parts[0], LocalDateTime.parse(parts[1]));
+    }
+
+    /**
+     * Database fallback: tokens are blacklisted in the schema of the campus that logged out
+     */
+    private boolean existsInAnySchema(String tokenHash) {
+        List<String> schemas = schemas();
+        Boolean exists = jdbcTemplate.queryForObject(
+                "SELECT EXISTS(" + unionSql(schemas, "SELECT 1 FROM %s.token_blacklist WHERE token_hash = ?") + ")",
+                Boolean.class, repeatParam(schemas, tokenHash));
+        return Boolean.TRUE.equals(exists);
+    }
+
+    /**
+     * UNION ALL of a per-schema query over public and all campus schemas
+     */
+    private String unionSql(List<String> schemas, String perSchemaSql) {
+        List<String> parts = new ArrayList<>();
+        for (String schema : schemas) {
+            parts.add(String.format(perSchemaSql, schema));
+        }
+        return String.join(" UNION ALL ", parts);
+    }
+
+    private Object[] repeatParam(List<String> schemas, Object param) {
+        Object[] params = new Object[schemas.size()];
+        Arrays.fill(params, param);
+        return params;
+    }
+
+    private List<String> schemas() {
+        List<String> schemas = new ArrayList<>();
+        schemas.add("public");
+        if (SharedSchemaService.SHARED_SCHEMA.equals(mode)) {
+            // Shared-schema mode keeps a single blacklist in public
+            return schemas;
+        }
+        for (String tenantId : tenantRegistry.getTenantIds()) {
+            // Schema names are concatenated into SQL, so they must be valid identifiers
+            if (TenantRegistry.isValidTenantId(tenantId)) {
+                schemas.add(tenantId);
+            }
+        }
+        return schemas;
+    }
 }
@@ -0,0 +1,251 @@
+package com.example.thekingstemple.service;
+
+import com.example.thekingstemple.entity.Vehicle;
+import com.example.thekingstemple.exception.ResourceNotFoundException;
+import com.example.thekingstemple.repository.VehicleRepository;
+import com.example.thekingstemple.service.ImageRenditionService.Photo;
+import com.example.thekingstemple.service.ImageRenditionService.Rendition;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serves vehicle photos and their renditions through /vehicles/{id}/images/{kind}.
+ * Responses carry an ETag from the content hash and support conditional and Range requests.
+ * Stored files are never rewritten (every upload gets a new name), so a request whose ?v= matches the
+ * current file can be cached for a year as immutable; other requests must revalidate with the ETag.
+ * Local files are sent with Tomcat's sendfile when available, else with FileChannel.transferTo,
+ * so the content never passes through the heap.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class VehiclePhotoService {
+
+    // private keeps shared caches from storing responses to authenticated requests; it does not make the
+    // photos secret, since originals are still returned with their storage URLs (public on GCS)
+    private static final String IMMUTABLE = "private, max-age=31536000, immutable";
+    private static final String REVALIDATE = "private, no-cache";
+
+    // Request attributes of Tomcat's sendfile support (org.apache.coyote.Constants)
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    /**
+     * Photo kinds of the endpoint; a null rendition is the original upload
+     */
+    public enum ImageKind {
+        CAR("car", Photo.CAR, null),
+        CAR_THUMBNAIL("car-thumbnail", Photo.CAR, Rendition.THUMBNAIL),
+        CAR_MEDIUM("car-medium", Photo.CAR, Rendition.MEDIUM),
+        KEY("key", Photo.KEY, null),
+        KEY_THUMBNAIL("key-thumbnail", Photo.KEY, Rendition.THUMBNAIL),
+        KEY_MEDIUM("key-medium", Photo.KEY, Rendition.MEDIUM);
+
+        private final String path;
+        private final Photo photo;
+        private final Rendition rendition;
+
+        ImageKind(String path, Photo photo, Rendition rendition) {
+            this.path = path;
+            this.photo = photo;
+            this.rendition = rendition;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public static ImageKind fromPath(String path) {
+            return Arrays.stream(values())
+                    .filter(kind -> kind.path.equals(path))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown image kind: " + path));
+        }
+    }
+
+    private final VehicleRepository vehicleRepository;
+    private final StorageService storageService;
+    private final ImageRenditionService imageRenditionService;
+
+    /**
+     * Versioned endpoint paths (relative to the API base URL) of the photos a vehicle has, by kind
+     */
+    public Map<String, String> getImagePaths(Vehicle vehicle) {
+        Map<String, String> paths = new LinkedHashMap<>();
+        for (ImageKind kind : ImageKind.values()) {
+            String fileUrl = getFileUrl(vehicle, kind);
+            if (fileUrl != null) {
+                paths.put(kind.path, "/vehicles/" + vehicle.getId() + "/images/" + kind.path + "?v=" + versionOf(fileUrl));
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * Write a vehicle photo to the response, honouring If-None-Match, Range and If-Range
+     *
+     * @param version The ?v= of the request, or null
+     * @throws ResourceNotFoundException If the vehicle, its photo of this kind or the stored file does not exist
+     * @throws IOException               If the stored file cannot be read or the client went away
+     */
+    public void serve(Long vehicleId, String kindPath, String version,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ImageKind kind = ImageKind.fromPath(kindPath);
+        Vehicle vehicle = vehicleRepository.findById(vehicleId)
+                .orElseThrow(() -> new ResourceNotFoundException("Vehicle", "id", vehicleId));
+        String fileUrl = getFileUrl(vehicle, kind);
+        if (fileUrl == null) {
+            throw new ResourceNotFoundException("Vehicle image", "kind", kindPath);
+        }
+
+        StorageService.StoredFile file;
+        try {
+            file = storageService.stat(fileUrl);
+        } catch (NoSuchFileException e) {
+            // Referenced by the vehicle but gone from storage
+            log.warn("Missing {} photo of vehicle {}: {}", kindPath, vehicleId, fileUrl);
+            throw new ResourceNotFoundException("Vehicle image", "kind", kindPath);
+        }
+        String etag = "\"" + file.contentHash() + "\"";
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, versionOf(fileUrl).equals(version) ? IMMUTABLE : REVALIDATE);
+
+        if (etagMatches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long size = file.size();
+        long start = 0;
+        long end = size;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        // A Range with a stale If-Range gets the whole new file instead of a piece of it
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            List<HttpRange> ranges = parseRanges(range);
+            // Several ranges would need a multipart response; a photo is small enough to send whole
+            if (ranges.size() == 1) {
+                start = ranges.get(0).getRangeStart(size);
+                end = ranges.get(0).getRangeEnd(size) + 1;
+                if (start >= size) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (end - 1) + "/" + size);
+            }
+        }
+
+        response.setContentType(file.contentType());
+        response.setContentLengthLong(end - start);
+        if ("HEAD".equals(request.getMethod()) || start == end) {
+            return;
+        }
+        if (file.localPath() != null) {
+            sendLocal(file.localPath(), start, end, request, response);
+        } else {
+            sendStored(fileUrl, start, end, response);
+        }
+    }
+
+    /**
+     * Zero-copy transfer of a local file: hand it to Tomcat's sendfile, or transferTo the response
+     */
+    private void sendLocal(Path path, long start, long end,
+                           HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            // Tomcat sends the file after the servlet returns; nothing may be written to the body
+            request.setAttribute(SENDFILE_FILENAME, path.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position < end) {
+                long transferred = channel.transferTo(position, end - position, out);
+                if (transferred <= 0) {
+                    throw new IOException("Unexpected end of file: " + path);
+                }
+                position += transferred;
+            }
+        }
+    }
+
+    /**
+     * Copy a range of a remote file through a fixed buffer, chunk by chunk
+     */
+    private void sendStored(String fileUrl, long start, long end, HttpServletResponse response) throws IOException {
+        OutputStream out = response.getOutputStream();
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        try (ReadableByteChannel channel = storageService.openRange(fileUrl, start, end)) {
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                out.write(buffer.array(), 0, buffer.limit());
+                buffer.clear();
+            }
+        }
+    }
+
+    private List<HttpRange> parseRanges(String range) {
+        try {
+            return HttpRange.parseRanges(range);
+        } catch (IllegalArgumentException e) {
+            // An invalid Range header is ignored (RFC 9110)
+            log.debug("Ignoring invalid Range header {}: {}", range, e.getMessage());
+            return List.of();
+        }
+    }
+
+    private boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            // Weak comparison: a W/ prefix added by a proxy still matches
+            if (value.equals("*") || value.equals(etag) || value.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String getFileUrl(Vehicle vehicle, ImageKind kind) {
+        return kind.rendition == null
+                ? imageRenditionService.getOriginalUrl(vehicle, kind.photo)
+                : imageRenditionService.getUrl(vehicle, kind.photo, kind.rendition);
+    }
+
+    /**
+     * Version of a stored file: its file name, unique per upload
+     */
+    private String versionOf(String fileUrl) {
+        return fileUrl.substring(Math.max(fileUrl.lastIndexOf('/'), fileUrl.lastIndexOf('\\')) + 1);
+    }
+}
@@ -8,15 +8,28 @@ import com.example.thekingstemple.exception.DuplicateResourceException;
 import com.example.thekingstemple.exception.ResourceNotFoundException;
 import com.example.thekingstemple.repository.UserRepository;
 import com.example.thekingstemple.repository.VehicleRepository;
+import com.example.thekingstemple.util.TenantContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service for vehicle management
@@ -31,6 +44,13 @@ public class VehicleService {
     private final EncryptionService encryptionService;
     private final AuditLogService auditLogService;
     private final StorageService storageService;
+    private final ImageRenditionService imageRenditionService;
+    private final VehiclePhotoService vehiclePhotoService;
+    private final ReportCacheService reportCacheService;
+    private final PlatformTransactionManager transactionManager;
+
+    @Qualifier("photoUploadExecutor")
+    private final ThreadPoolTaskExecutor photoUploadExecutor;
 
     /**
      * Register new vehicle
@@ -71,6 +91,9 @@ public class VehicleService {
         Vehicle savedVehicle = vehicleRepository.save(vehicle);
         log.info("Vehicle created with ID: {} by user: {}", savedVehicle.getId(), createdByUserId);
 
+        // Registered-vehicle totals in cached reports are now stale
+        reportCacheService.evictTenant(TenantContext.getTenantId());
+
         // Audit log
         auditLogService.log(
                 createdByUserId,
@@ -85,8 +108,9 @@ public class VehicleService {
 
     /**
      * Register new vehicle with optional photos
+     * Photos are uploaded first, outside any transaction and concurrently; the vehicle row is then
+     * inserted in a short transaction. If the insert fails, the uploaded photos are deleted again.
      */
-    @Transactional
     public VehicleResponse createVehicleWithPhotos(
             CreateVehicleRequest request,
             MultipartFile carImage,
@@ -99,108 +123,114 @@ public class VehicleService {
         // Hash vehicle number to check uniqueness
         String vehicleNumberHash = encryptionService.hash(normalizedVehicleNumber);
 
-        // Check if vehicle already exists
+        // Check if vehicle already exists (again enforced by the unique index on insert)
         if (vehicleRepository.existsByVehicleNumberHash(vehicleNumberHash)) {
             throw new DuplicateResourceException("Vehicle", "vehicle number", normalizedVehicleNumber);
         }
-
-        // Get creator user
-        User createdBy = userRepository.findById(createdByUserId)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "id", createdByUserId));
+        if (!userRepository.existsById(createdByUserId)) {
+            throw new ResourceNotFoundException("User", "id", createdByUserId);
+        }
 
         // Encrypt and hash vehicle number and owner mobile
         EncryptionService.EncryptedData encryptedVehicleNumber = encryptionService.encryptAndHash(normalizedVehicleNumber);
         EncryptionService.EncryptedData encryptedOwnerMobile = encryptionService.encryptAndHash(request.getOwnerMobile());
 
-        // Upload photos to GCS (if provided)
-        String carImageUrl = null;
-        String keyImageUrl = null;
+        // Upload photos (if provided) before touching the database
+        UploadedPhotos uploaded = uploadPhotos(carImage, keyImage);
+        if (uploaded.carImageUrl() != null) {
+            log.info("Car image uploaded: {}", uploaded.carImageUrl());
+        }
+        if (uploaded.keyImageUrl() != null) {
+            log.info("Key image uploaded: {}", uploaded.keyImageUrl());
+        }
 
+        VehicleResponse response;
         try {
-            if (carImage != null && !carImage.isEmpty()) {
-                carImageUrl = storageService.uploadFile(carImage, "vehicles/car");
-                log.info("Car image uploaded: {}", carImageUrl);
-            }
-
-            if (keyImage != null && !keyImage.isEmpty()) {
-                keyImageUrl = storageService.uploadFile(keyImage, "vehicles/key");
-                log.info("Key image uploaded: {}", keyImageUrl);
-            }
-        } catch (IOException e) {
-            log.error("Error uploading images: {}", e.getMessage(), e);
-            // Clean up uploaded images if one fails
-            if (carImageUrl != null) {
-                storageService.deleteFile(carImageUrl);
-            }
+            response = transactionTemplate().execute(status -> {
+                User createdBy = userRepository.findById(createdByUserId)
+                        .orElseThrow(() -> new ResourceNotFoundException("User", "id", createdByUserId));
+
+                // Create vehicle
+                Vehicle vehicle = Vehicle.builder()
+                        .ownerName(request.getOwnerName())
+                        .ownerMobile(encryptedOwnerMobile.encrypted())
+                        .ownerMobileHash(encryptedOwnerMobile.hash())
+                        .vehicleNumber(encryptedVehicleNumber.encrypted())
+                        .vehicleNumberHash(encryptedVehicleNumber.hash())
+                        .vehicleType(request.getVehicleType())
+                        .carImageUrl(uploaded.carImageUrl())
+                        .keyImageUrl(uploaded.keyImageUrl())
+                        .createdBy(createdBy)
+                        .active(true)
+                        .build();
+
+                Vehicle savedVehicle = vehicleRepository.save(vehicle);
+
+                // Thumbnails are rendered in the background once the vehicle is committed
+                imageRenditionService.renderAfterCommit(savedVehicle.getId(), ImageRenditionService.Photo.CAR, uploaded.carImageUrl());
+                imageRenditionService.renderAfterCommit(savedVehicle.getId(), ImageRenditionService.Photo.KEY, uploaded.keyImageUrl());
+                return mapToResponse(savedVehicle);
+            });
+        } catch (RuntimeException e) {
+            // Nothing references the photos, remove them
+            deleteFiles(uploaded.urls());
             throw e;
         }
+        log.info("Vehicle created with ID: {} by user: {}", response.getId(), createdByUserId);
 
-        // Create vehicle
-        Vehicle vehicle = Vehicle.builder()
-                .ownerName(request.getOwnerName())
-                .ownerMobile(encryptedOwnerMobile.encrypted())
-                .ownerMobileHash(encryptedOwnerMobile.hash())
-                .vehicleNumber(encryptedVehicleNumber.encrypted())
-                .vehicleNumberHash(encryptedVehicleNumber.hash())
-                .vehicleType(request.getVehicleType())
-                .carImageUrl(carImageUrl)
-                .keyImageUrl(keyImageUrl)
-                .createdBy(createdBy)
-                .active(true)
-                .build();
-
-        Vehicle savedVehicle = vehicleRepository.save(vehicle);
-        log.info("Vehicle created with ID: {} by user: {}", savedVehicle.getId(), createdByUserId);
+        // Registered-vehicle totals in cached reports are now stale
+        reportCacheService.evictTenant(TenantContext.getTenantId());
 
         // Audit log
         auditLogService.log(
                 createdByUserId,
                 "CREATE_VEHICLE",
                 "VEHICLE",
-                savedVehicle.getId().toString(),
+                response.getId().toString(),
                 String.format("Registered vehicle: %s with photos", normalizedVehicleNumber)
         );
 
-        return mapToResponse(savedVehicle);
+        return response;
     }
 
     /**
      * Update vehicle images
+     * New photos are uploaded outside the transaction; the replaced photos and their renditions are
+     * deleted only after the new URLs are committed.
      */
-    @Transactional
     public VehicleResponse updateVehicleImages(
             Long vehicleId,
             MultipartFile carImage,
             MultipartFile keyImage,
             Long userId
     ) throws IOException {
-        Vehicle vehicle = vehicleRepository.findById(vehicleId)
-                .orElseThrow(() -> new ResourceNotFoundException("Vehicle", "id", vehicleId));
-
-        // Upload new images and delete old ones
-        if (carImage != null && !carImage.isEmpty()) {
-            // Delete old image if exists
-            if (vehicle.getCarImageUrl() != null) {
-                storageService.deleteFile(vehicle.getCarImageUrl());
-            }
-            // Upload new image
-            String newCarImageUrl = storageService.uploadFile(carImage, "vehicles/car");
-            vehicle.setCarImageUrl(newCarImageUrl);
-            log.info("Car image updated for vehicle ID: {}", vehicleId);
+        if (!vehicleRepository.existsById(vehicleId)) {
+            throw new ResourceNotFoundException("Vehicle", "id", vehicleId);
         }
 
-        if (keyImage != null && !keyImage.isEmpty()) {
-            // Delete old image if exists
-            if (vehicle.getKeyImageUrl() != null) {
-                storageService.deleteFile(vehicle.getKeyImageUrl());
-            }
-            // Upload new image
-            String newKeyImageUrl = storageService.uploadFile(keyImage, "vehicles/key");
-            vehicle.setKeyImageUrl(newKeyImageUrl);
-            log.info("Key image updated for vehicle ID: {}", vehicleId);
+        // Upload new images before touching the database
+        UploadedPhotos uploaded = uploadPhotos(carImage, keyImage);
+
+        List<String> replacedFiles = new ArrayList<>();
+        VehicleResponse response;
+        try {
+            response = transactionTemplate().execute(status -> {
+                Vehicle vehicle = vehicleRepository.findById(vehicleId)
+                        .orElseThrow(() -> new ResourceNotFoundException("Vehicle", "id", vehicleId));
+                replacedFiles.addAll(applyPhotos(vehicle, uploaded));
+                VehicleResponse saved = mapToResponse(vehicleRepository.save(vehicle));
+
+                // Cached reports embed the vehicle with its updatedAt, which this save changes (no photo URLs)
+                reportCacheService.evictTenant(TenantContext.getTenantId());
+                return saved;
+            });
+        } catch (RuntimeException e) {
+            deleteFiles(uploaded.urls());
+            throw e;
         }
 
-        Vehicle savedVehicle = vehicleRepository.save(vehicle);
+        // Old photos are unreferenced now that the new ones are committed
+        deleteFiles(replacedFiles);
 
         // Audit log
         auditLogService.log(
@@ -211,7 +241,7 @@ public class VehicleService {
                 "Updated vehicle images"
         );
 
-        return mapToResponse(savedVehicle);
+        return response;
     }
 
     /**
@@ -319,6 +349,9 @@ public class VehicleService {
         Vehicle savedVehicle = vehicleRepository.save(vehicle);
         log.info("Vehicle {} updated by user: {}", vehicleId, userId);
 
+        // Cached reports embed vehicle details
+        reportCacheService.evictTenant(TenantContext.getTenantId());
+
         // Audit log
         auditLogService.log(
                 userId,
@@ -333,8 +366,8 @@ public class VehicleService {
 
     /**
      * Update vehicle details with optional photos
+     * Photos are uploaded outside the transaction, as in updateVehicleImages
      */
-    @Transactional
     public VehicleResponse updateVehicleWithPhotos(
             Long vehicleId,
             CreateVehicleRequest request,
@@ -342,77 +375,193 @@ public class VehicleService {
             MultipartFile keyImage,
             Long userId
     ) throws IOException {
-        Vehicle vehicle = vehicleRepository.findById(vehicleId)
+        Vehicle existing = vehicleRepository.findById(vehicleId)
                 .orElseThrow(() -> new ResourceNotFoundException("Vehicle", "id", vehicleId));
 
         // If vehicle number is being changed, check for uniqueness
         String normalizedVehicleNumber = request.getVehicleNumber().toUpperCase();
         String newVehicleNumberHash = encryptionService.hash(normalizedVehicleNumber);
 
-        // Only check uniqueness if the vehicle number is actually changing
-        if (!newVehicleNumberHash.equals(vehicle.getVehicleNumberHash())) {
+        // Only check uniqueness if the vehicle number is actually changing (again enforced by the unique index)
+        if (!newVehicleNumberHash.equals(existing.getVehicleNumberHash())) {
             if (vehicleRepository.existsByVehicleNumberHash(newVehicleNumberHash)) {
                 throw new DuplicateResourceException("Vehicle", "vehicle number", normalizedVehicleNumber);
             }
         }
 
-        // Update fields
-        vehicle.setOwnerName(request.getOwnerName());
+        // Upload new images before touching the database
+        UploadedPhotos uploaded = uploadPhotos(carImage, keyImage);
 
-        // Update mobile only if changed
-        String newOwnerMobileHash = encryptionService.hash(request.getOwnerMobile());
-        if (!newOwnerMobileHash.equals(vehicle.getOwnerMobileHash())) {
-            EncryptionService.EncryptedData encryptedOwnerMobile = encryptionService.encryptAndHash(request.getOwnerMobile());
-            vehicle.setOwnerMobile(encryptedOwnerMobile.encrypted());
-            vehicle.setOwnerMobileHash(encryptedOwnerMobile.hash());
+        List<String> replacedFiles = new ArrayList<>();
+        VehicleResponse response;
+        try {
+            response = transactionTemplate().execute(status -> {
+                Vehicle vehicle = vehicleRepository.findById(vehicleId)
+                        .orElseThrow(() -> new ResourceNotFoundException("Vehicle", "id", vehicleId));
+
+                // Update fields
+                vehicle.setOwnerName(request.getOwnerName());
+
+                // Update mobile only if changed
+                String newOwnerMobileHash = encryptionService.hash(request.getOwnerMobile());
+                if (!newOwnerMobileHash.equals(vehicle.getOwnerMobileHash())) {
+                    EncryptionService.EncryptedData encryptedOwnerMobile = encryptionService.encryptAndHash(request.getOwnerMobile());
+                    vehicle.setOwnerMobile(encryptedOwnerMobile.encrypted());
+                    vehicle.setOwnerMobileHash(encryptedOwnerMobile.hash());
+                }
+
+                // Update vehicle number only if changed
+                if (!newVehicleNumberHash.equals(vehicle.getVehicleNumberHash())) {
+                    EncryptionService.EncryptedData encryptedVehicleNumber = encryptionService.encryptAndHash(normalizedVehicleNumber);
+                    vehicle.setVehicleNumber(encryptedVehicleNumber.encrypted());
+                    vehicle.setVehicleNumberHash(encryptedVehicleNumber.hash());
+                }
+
+                // Update vehicle type
+                vehicle.setVehicleType(request.getVehicleType());
+
+                // Handle image updates
+                replacedFiles.addAll(applyPhotos(vehicle, uploaded));
+
+                return mapToResponse(vehicleRepository.save(vehicle));
+            });
+        } catch (RuntimeException e) {
+            deleteFiles(uploaded.urls());
+            throw e;
         }
+        log.info("Vehicle {} updated by user: {}", vehicleId, userId);
 
-        // Update vehicle number only if changed
-        if (!newVehicleNumberHash.equals(vehicle.getVehicleNumberHash())) {
-            EncryptionService.EncryptedData encryptedVehicleNumber = encryptionService.encryptAndHash(normalizedVehicleNumber);
-            vehicle.setVehicleNumber(encryptedVehicleNumber.encrypted());
-            vehicle.setVehicleNumberHash(encryptedVehicleNumber.hash());
+        // Old photos are unreferenced now that the new ones are committed
+        deleteFiles(replacedFiles);
+
+        // Cached reports embed vehicle details
+        reportCacheService.evictTenant(TenantContext.getTenantId());
+
+        // Audit log
+        auditLogService.log(
+                userId,
+                "UPDATE_VEHICLE",
+                "VEHICLE",
+                vehicleId.toString(),
+                String.format("Updated vehicle: %s", normalizedVehicleNumber)
+        );
+
+        return response;
+    }
+
+    /**
+     * Upload car and key photos; with both present they go concurrently (car on the upload pool,
+     * key on the calling thread). If either upload fails, the other one is deleted again.
+     */
+    private UploadedPhotos uploadPhotos(MultipartFile carImage, MultipartFile keyImage) throws IOException {
+        boolean hasCar = carImage != null && !carImage.isEmpty();
+        boolean hasKey = keyImage != null && !keyImage.isEmpty();
+        String carFolder = ImageRenditionService.Photo.CAR.getFolder();
+        String keyFolder = ImageRenditionService.Photo.KEY.getFolder();
+
+        if (!hasCar || !hasKey) {
+            return new UploadedPhotos(
+                    hasCar ? storageService.uploadFile(carImage, carFolder) : null,
+                    hasKey ? storageService.uploadFile(keyImage, keyFolder) : null);
         }
 
-        // Update vehicle type
-        vehicle.setVehicleType(request.getVehicleType());
+        Future<String> carUpload;
+        try {
+            carUpload = photoUploadExecutor.submit(() -> storageService.uploadFile(carImage, carFolder));
+        } catch (TaskRejectedException e) {
+            // Upload pool busy: upload one after the other on this thread
+            carUpload = CompletableFuture.completedFuture(storageService.uploadFile(carImage, carFolder));
+        }
+
+        String keyImageUrl;
+        try {
+            keyImageUrl = storageService.uploadFile(keyImage, keyFolder);
+        } catch (IOException | RuntimeException e) {
+            log.error("Error uploading key image: {}", e.getMessage(), e);
+            // Wait for the car upload so it can be removed as well
+            try {
+                deleteFiles(Collections.singletonList(awaitUpload(carUpload)));
+            } catch (IOException | RuntimeException ignored) {
+                // Car upload failed too, nothing to remove
+            }
+            throw e;
+        }
+
+        try {
+            return new UploadedPhotos(awaitUpload(carUpload), keyImageUrl);
+        } catch (IOException | RuntimeException e) {
+            log.error("Error uploading car image: {}", e.getMessage(), e);
+            deleteFiles(Collections.singletonList(keyImageUrl));
+            throw e;
+        }
+    }
 
-        // Handle image updates
-        if (carImage != null && !carImage.isEmpty()) {
-            // Delete old image if exists
+    private String awaitUpload(Future<String> upload) throws IOException {
+        try {
+            return upload.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while uploading image", e);
+        } catch (ExecutionException e) {
+            // Keep validation errors (IllegalArgumentException) and IOExceptions as thrown by the storage service
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException("Failed to upload image", e.getCause());
+        }
+    }
+
+    /**
+     * Point the vehicle at newly uploaded photos (caller saves it)
+     *
+     * @return the replaced photos and renditions, to be deleted once the change is committed
+     */
+    private List<String> applyPhotos(Vehicle vehicle, UploadedPhotos uploaded) {
+        List<String> replaced = new ArrayList<>();
+        if (uploaded.carImageUrl() != null) {
             if (vehicle.getCarImageUrl() != null) {
-                storageService.deleteFile(vehicle.getCarImageUrl());
+                replaced.add(vehicle.getCarImageUrl());
             }
-            // Upload new image
-            String newCarImageUrl = storageService.uploadFile(carImage, "vehicles/car");
-            vehicle.setCarImageUrl(newCarImageUrl);
-            log.info("Car image updated for vehicle ID: {}", vehicleId);
+            replaced.addAll(imageRenditionService.clearRenditions(vehicle, ImageRenditionService.Photo.CAR));
+            vehicle.setCarImageUrl(uploaded.carImageUrl());
+            imageRenditionService.renderAfterCommit(vehicle.getId(), ImageRenditionService.Photo.CAR, uploaded.carImageUrl());
+            log.info("Car image updated for vehicle ID: {}", vehicle.getId());
         }
 
-        if (keyImage != null && !keyImage.isEmpty()) {
-            // Delete old image if exists
+        if (uploaded.keyImageUrl() != null) {
             if (vehicle.getKeyImageUrl() != null) {
-                storageService.deleteFile(vehicle.getKeyImageUrl());
+                replaced.add(vehicle.getKeyImageUrl());
             }
-            // Upload new image
-            String newKeyImageUrl = storageService.uploadFile(keyImage, "vehicles/key");
-            vehicle.setKeyImageUrl(newKeyImageUrl);
-            log.info("Key image updated for vehicle ID: {}", vehicleId);
+            replaced.addAll(imageRenditionService.clearRenditions(vehicle, ImageRenditionService.Photo.KEY));
+            vehicle.setKeyImageUrl(uploaded.keyImageUrl());
+            imageRenditionService.renderAfterCommit(vehicle.getId(), ImageRenditionService.Photo.KEY, uploaded.keyImageUrl());
+            log.info("Key image updated for vehicle ID: {}", vehicle.getId());
         }
+        return replaced;
+    }
 
-        Vehicle savedVehicle = vehicleRepository.save(vehicle);
-        log.info("Vehicle {} updated by user: {}", vehicleId, userId);
+    private void deleteFiles(List<String> fileUrls) {
+        for (String fileUrl : fileUrls) {
+            if (fileUrl != null) {
+                storageService.deleteFile(fileUrl);
+            }
+        }
+    }
 
-        // Audit log
-        auditLogService.log(
-                userId,
-                "UPDATE_VEHICLE",
-                "VEHICLE",
-                vehicleId.toString(),
-                String.format("Updated vehicle: %s", normalizedVehicleNumber)
-        );
+    private TransactionTemplate transactionTemplate() {
+        return new TransactionTemplate(transactionManager);
+    }
 
-        return mapToResponse(savedVehicle);
+    /**
+     * URLs of the photos uploaded for one request; either may be null
+     */
+    private record UploadedPhotos(String carImageUrl, String keyImageUrl) {
+        List<String> urls() {
+            return Stream.of(carImageUrl, keyImageUrl).filter(Objects::nonNull).toList();
+        }
     }
 
     /**
@@ -427,6 +576,7 @@ public class VehicleService {
                 .vehicleType(vehicle.getVehicleType())
                 .carImageUrl(vehicle.getCarImageUrl())
                 .keyImageUrl(vehicle.getKeyImageUrl())
+                .imageUrls(vehiclePhotoService.getImagePaths(vehicle))
                 .createdById(vehicle.getCreatedBy().getId())
                 .createdByMobile(encryptionService.decrypt(vehicle.getCreatedBy().getMobileNumber()))
                 .createdAt(vehicle.getCreatedAt())
@@ -0,0 +1,326 @@
+package com.example.thekingstemple.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only spool of binary records in memory-mapped segment files, for one writer and one reader thread.
+ * Each record is framed as [int length][int crc32][payload]; a zero length marks the end of written data,
+ * since new segments are zero-filled. The reader's committed position is kept in a checkpoint file, and
+ * segments behind it are deleted. On open, a torn record at the end of the last segment (crash mid-write)
+ * is detected by its CRC and cut off, and reading resumes at the checkpoint.
+ * Disk usage is bounded by segment size * max segments; append returns false when the spool is full.
+ */
+@Slf4j
+public final class MappedSpool implements Closeable {
+
+    private static final int HEADER_SIZE = 8;
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+
+    /**
+     * Position in the spool: segment number and byte offset in it
+     */
+    public record Position(long segment, int offset) {
+    }
+
+    /**
+     * Records read from the spool and the position just after the last one
+     */
+    public record Batch(List<byte[]> records, Position end) {
+        public boolean isEmpty() {
+            return records.isEmpty();
+        }
+    }
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final ConcurrentSkipListMap<Long, MappedByteBuffer> segments = new ConcurrentSkipListMap<>();
+
+    // Writer state; written is published to the reader
+    private long writeSegment;
+    private int writeOffset;
+    private int forcedOffset;
+    private volatile Position written;
+
+    // Reader state; volatile for pendingBytes from other threads
+    private volatile Position readPosition;
+
+    public MappedSpool(Path directory, int segmentSize, int maxSegments) throws IOException {
+        if (segmentSize <= HEADER_SIZE || maxSegments < 2) {
+            throw new IllegalArgumentException("Spool needs segments larger than a record header and at least 2 segments");
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        Files.createDirectories(directory);
+        recover();
+    }
+
+    /**
+     * Append a record. Writer thread only.
+     *
+     * @return false if the record is larger than a segment or the spool is full
+     */
+    public boolean append(byte[] payload) throws IOException {
+        int recordSize = HEADER_SIZE + payload.length;
+        if (recordSize > segmentSize) {
+            return false;
+        }
+        if (writeOffset + recordSize > segmentSize) {
+            if (segments.size() >= maxSegments) {
+                return false;
+            }
+            force();
+            writeSegment++;
+            writeOffset = 0;
+            forcedOffset = 0;
+            segments.put(writeSegment, map(writeSegment));
+        }
+
+        MappedByteBuffer segment = segments.get(writeSegment);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        segment.put(writeOffset + HEADER_SIZE, payload);
+        segment.putInt(writeOffset + 4, (int) crc.getValue());
+        // Length last, so a record is never seen with a length but without its payload
+        segment.putInt(writeOffset, payload.length);
+        writeOffset += recordSize;
+        written = new Position(writeSegment, writeOffset);
+        return true;
+    }
+
+    /**
+     * Flush appended records of the current segment to disk. Writer thread only.
+     */
+    public void force() {
+        if (writeOffset > forcedOffset) {
+            segments.get(writeSegment).force(forcedOffset, writeOffset - forcedOffset);
+            forcedOffset = writeOffset;
+        }
+    }
+
+    /**
+     * Read up to limit records from the committed position without consuming them. Reader thread only.
+     */
+    public Batch read(int limit) {
+        List<byte[]> records = new ArrayList<>();
+        Position end = written;
+        long segmentNumber = readPosition.segment();
+        int offset = readPosition.offset();
+
+        while (records.size() < limit) {
+            MappedByteBuffer segment = segments.get(segmentNumber);
+            boolean sealed = segmentNumber < end.segment();
+            int limitOffset = sealed ? segmentSize : end.offset();
+            int length = offset + HEADER_SIZE <= limitOffset ? segment.getInt(offset) : 0;
+
+            if (length <= 0 || offset + HEADER_SIZE + length > limitOffset) {
+                if (!sealed) {
+                    break;
+                }
+                // End of a finished segment: continue with the next one
+                segmentNumber++;
+                offset = 0;
+                continue;
+            }
+
+            byte[] payload = new byte[length];
+            segment.get(offset + HEADER_SIZE, payload);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            if ((int) crc.getValue() != segment.getInt(offset + 4)) {
+                if (!sealed) {
+                    break;
+                }
+                log.error("Corrupt record in spool segment {} at offset {}, skipping rest of segment", segmentNumber, offset);
+                segmentNumber++;
+                offset = 0;
+                continue;
+            }
+            records.add(payload);
+            offset += HEADER_SIZE + length;
+        }
+        return new Batch(records, new Position(segmentNumber, offset));
+    }
+
+    /**
+     * Mark everything before the position as consumed: save the checkpoint and delete finished segments.
+     * Reader thread only.
+     */
+    public void commit(Position position) throws IOException {
+        writeCheckpoint(position);
+        readPosition = position;
+        for (Long segmentNumber : List.copyOf(segments.headMap(position.segment()).keySet())) {
+            segments.remove(segmentNumber);
+            Files.deleteIfExists(segmentPath(segmentNumber));
+        }
+    }
+
+    /**
+     * Position up to which records have been committed
+     */
+    public Position committed() {
+        return readPosition;
+    }
+
+    /**
+     * Number of segment files on disk, including the one being written
+     */
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Approximate bytes written but not yet committed by the reader
+     */
+    public long pendingBytes() {
+        Position end = written;
+        Position read = readPosition;
+        return (end.segment() - read.segment()) * segmentSize + end.offset() - read.offset();
+    }
+
+    @Override
+    public void close() {
+        force();
+    }
+
+    private void recover() throws IOException {
+        List<Long> existing;
+        try (Stream<Path> files = Files.list(directory)) {
+            existing = files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+
+        Position checkpoint = readCheckpoint();
+        for (long segmentNumber : existing) {
+            if (checkpoint != null && segmentNumber < checkpoint.segment()) {
+                Files.deleteIfExists(segmentPath(segmentNumber));
+            } else {
+                segments.put(segmentNumber, map(segmentNumber));
+            }
+        }
+        if (segments.isEmpty()) {
+            long first = checkpoint != null ? checkpoint.segment() : 0;
+            segments.put(first, map(first));
+        }
+
+        // Resume reading at the checkpoint if its segment survived, else at the oldest segment
+        readPosition = checkpoint != null && segments.containsKey(checkpoint.segment())
+                ? checkpoint
+                : new Position(segments.firstKey(), 0);
+
+        writeSegment = segments.lastKey();
+        writeOffset = scanEnd(segments.get(writeSegment));
+        forcedOffset = writeOffset;
+        written = new Position(writeSegment, writeOffset);
+        if (readPosition.segment() == writeSegment && readPosition.offset() > writeOffset) {
+            readPosition = written;
+        }
+        log.info("Spool {} opened: {} segment(s), reading from {}:{}, writing at {}:{}", directory, segments.size(),
+                readPosition.segment(), readPosition.offset(), writeSegment, writeOffset);
+    }
+
+    /**
+     * Find the end of valid records in the last segment and zero anything after it
+     */
+    private int scanEnd(MappedByteBuffer segment) {
+        int offset = 0;
+        while (offset + HEADER_SIZE <= segmentSize) {
+            int length = segment.getInt(offset);
+            if (length == 0) {
+                return offset;
+            }
+            if (length < 0 || offset + HEADER_SIZE + length > segmentSize) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            segment.get(offset + HEADER_SIZE, payload);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            if ((int) crc.getValue() != segment.getInt(offset + 4)) {
+                break;
+            }
+            offset += HEADER_SIZE + length;
+        }
+        if (offset + HEADER_SIZE > segmentSize) {
+            // Segment filled up to its last few bytes
+            return offset;
+        }
+
+        log.warn("Torn record at offset {} of the last spool segment, discarding the rest of it", offset);
+        for (int i = offset; i < segmentSize; i++) {
+            segment.put(i, (byte) 0);
+        }
+        segment.force();
+        return offset;
+    }
+
+    private MappedByteBuffer map(long segmentNumber) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(segmentNumber),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // The mapping stays valid after the channel is closed; new files are zero-filled
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+    }
+
+    private Position readCheckpoint() throws IOException {
+        Path path = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(path)) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        if (buffer.remaining() != 16) {
+            log.warn("Ignoring spool checkpoint with unexpected size {}", buffer.remaining());
+            return null;
+        }
+        long segment = buffer.getLong();
+        int offset = buffer.getInt();
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, 12);
+        if ((int) crc.getValue() != buffer.getInt()) {
+            log.warn("Ignoring corrupt spool checkpoint");
+            return null;
+        }
+        return new Position(segment, offset);
+    }
+
+    private void writeCheckpoint(Position position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(16).putLong(position.segment()).putInt(position.offset());
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, 12);
+        buffer.putInt((int) crc.getValue()).flip();
+
+        // Write aside and rename, so a crash leaves either the old or the new checkpoint
+        Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(buffer);
+            channel.force(true);
+        }
+        Files.move(temp, directory.resolve(CHECKPOINT_FILE), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private Path segmentPath(long segmentNumber) {
+        return directory.resolve(String.format("%020d%s", segmentNumber, SEGMENT_SUFFIX));
+    }
+}
@@ -2,9 +2,15 @@ package com.example.thekingstemple.util;
 
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.function.Supplier;
+
 /**
  * Thread-local storage for the current tenant ID
  * Used for schema-based multitenancy in PostgreSQL
+ * Prefer runWithTenant/callWithTenant over setTenantId/clear: the binding is scoped to the task and the
+ * caller's tenant is restored even if the task fails, which also keeps pooled and virtual threads clean.
+ * The scoped methods mirror ScopedValue.where(...).run/call, so the carrier can move to ScopedValue once it
+ * is no longer a preview API; until then a ThreadLocal (one per virtual thread) backs them.
  */
 @Slf4j
 public class TenantContext {
@@ -15,22 +21,22 @@ public class TenantContext {
         String previousTenantId = currentTenant.get();
         currentTenant.set(tenantId);
 
+        // Runs on every request: debug only, thread name comes from the log pattern
+        if (!log.isDebugEnabled()) {
+            return;
+        }
         if (previousTenantId == null) {
-            log.info("[TENANT-CONTEXT] Setting tenantId: {} on thread: {}",
-                    tenantId, Thread.currentThread().getName());
+            log.debug("[TENANT-CONTEXT] Setting tenantId: {}", tenantId);
         } else if (!previousTenantId.equals(tenantId)) {
-            log.info("[TENANT-CONTEXT] Switching tenantId from: {} to: {} on thread: {}",
-                    previousTenantId, tenantId, Thread.currentThread().getName());
+            log.debug("[TENANT-CONTEXT] Switching tenantId from: {} to: {}", previousTenantId, tenantId);
         } else {
-            log.debug("[TENANT-CONTEXT] TenantId already set to: {} on thread: {}",
-                    tenantId, Thread.currentThread().getName());
+            log.debug("[TENANT-CONTEXT] TenantId already set to: {}", tenantId);
         }
     }
 
     public static String getTenantId() {
         String tenantId = currentTenant.get();
-        log.debug("[TENANT-CONTEXT] getTenantId() called on thread: {}, returning: {}",
-                Thread.currentThread().getName(), tenantId);
+        log.trace("[TENANT-CONTEXT] getTenantId() returning: {}", tenantId);
         return tenantId;
     }
 
@@ -38,8 +44,34 @@ public class TenantContext {
         String tenantId = currentTenant.get();
         currentTenant.remove();
         if (tenantId != null) {
-            log.info("[TENANT-CONTEXT] Clearing tenantId: {} from thread: {}",
-                    tenantId, Thread.currentThread().getName());
+            log.debug("[TENANT-CONTEXT] Clearing tenantId: {}", tenantId);
+        }
+    }
+
+    /**
+     * Run a task with the given tenant bound, restoring the caller's tenant afterwards
+     */
+    public static void runWithTenant(String tenantId, Runnable task) {
+        callWithTenant(tenantId, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Compute a value with the given tenant bound, restoring the caller's tenant afterwards
+     */
+    public static <T> T callWithTenant(String tenantId, Supplier<T> task) {
+        String previousTenantId = currentTenant.get();
+        setTenantId(tenantId);
+        try {
+            return task.get();
+        } finally {
+            if (previousTenantId != null) {
+                currentTenant.set(previousTenantId);
+            } else {
+                clear();
+            }
         }
     }
 }
@@ -0,0 +1,10 @@
+-- ================================================================
+-- TKT Backend - Shared-Schema Campus Partitions
+-- ${tenant} is replaced with the (validated) tenant id
+-- ================================================================
+
+CREATE TABLE IF NOT EXISTS shared.users_${tenant} PARTITION OF shared.users FOR VALUES IN ('${tenant}');
+CREATE TABLE IF NOT EXISTS shared.vehicles_${tenant} PARTITION OF shared.vehicles FOR VALUES IN ('${tenant}');
+CREATE TABLE IF NOT EXISTS shared.visits_${tenant} PARTITION OF shared.visits FOR VALUES IN ('${tenant}');
+-- Sub-partitioned by month, see AuditPartitionService
+CREATE TABLE IF NOT EXISTS shared.audit_logs_${tenant} PARTITION OF shared.audit_logs FOR VALUES IN ('${tenant}') PARTITION BY RANGE (timestamp);
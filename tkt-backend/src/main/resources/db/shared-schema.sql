@@ -0,0 +1,137 @@
+-- ================================================================
+-- TKT Backend - Shared-Schema Multitenancy (multitenancy.mode=shared)
+-- All campuses live in schema "shared", list-partitioned by tenant_id.
+-- tenant_id defaults to the connection's app.tenant_id setting, and
+-- row-level security restricts every query to that campus.
+-- NOTE: superusers and BYPASSRLS roles are not subject to RLS; run the
+-- application as a regular role in this mode.
+-- Partitions per campus are created from shared-partition.sql; keep
+-- columns in sync with tenant-schema.sql.
+-- ================================================================
+
+CREATE SCHEMA IF NOT EXISTS shared;
+
+CREATE TABLE IF NOT EXISTS shared.users (
+    id BIGSERIAL,
+    tenant_id VARCHAR(20) NOT NULL DEFAULT current_setting('app.tenant_id', true),
+    mobile_number VARCHAR(500) NOT NULL,
+    mobile_hash VARCHAR(64) NOT NULL,
+    pin_hash VARCHAR(60) NOT NULL,
+    role VARCHAR(20) NOT NULL,
+    active BOOLEAN NOT NULL DEFAULT true,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, tenant_id),
+    CONSTRAINT uk_users_mobile_hash UNIQUE (tenant_id, mobile_hash)
+) PARTITION BY LIST (tenant_id);
+
+CREATE INDEX IF NOT EXISTS idx_shared_users_role ON shared.users(tenant_id, role);
+
+CREATE TABLE IF NOT EXISTS shared.vehicles (
+    id BIGSERIAL,
+    tenant_id VARCHAR(20) NOT NULL DEFAULT current_setting('app.tenant_id', true),
+    owner_name VARCHAR(100) NOT NULL,
+    owner_mobile VARCHAR(500) NOT NULL,
+    owner_mobile_hash VARCHAR(64) NOT NULL,
+    vehicle_number VARCHAR(500) NOT NULL,
+    vehicle_number_hash VARCHAR(64) NOT NULL,
+    vehicle_type VARCHAR(10) NOT NULL,
+    created_by_id BIGINT NOT NULL,
+    active BOOLEAN NOT NULL DEFAULT true,
+    car_image_url VARCHAR(500),
+    key_image_url VARCHAR(500),
+    car_thumbnail_url VARCHAR(500),
+    car_medium_url VARCHAR(500),
+    key_thumbnail_url VARCHAR(500),
+    key_medium_url VARCHAR(500),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, tenant_id),
+    CONSTRAINT uk_vehicles_number_hash UNIQUE (tenant_id, vehicle_number_hash),
+    CONSTRAINT fk_vehicles_created_by FOREIGN KEY (created_by_id, tenant_id) REFERENCES shared.users(id, tenant_id)
+) PARTITION BY LIST (tenant_id);
+
+CREATE INDEX IF NOT EXISTS idx_shared_vehicles_owner_mobile_hash ON shared.vehicles(tenant_id, owner_mobile_hash);
+CREATE INDEX IF NOT EXISTS idx_shared_vehicles_type ON shared.vehicles(tenant_id, vehicle_type);
+
+CREATE TABLE IF NOT EXISTS shared.visits (
+    id BIGSERIAL,
+    tenant_id VARCHAR(20) NOT NULL DEFAULT current_setting('app.tenant_id', true),
+    vehicle_id BIGINT NOT NULL,
+    visit_date DATE NOT NULL,
+    arrived_at TIMESTAMP NOT NULL,
+    marked_by_id BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, tenant_id),
+    CONSTRAINT uk_visits_vehicle_date UNIQUE (tenant_id, vehicle_id, visit_date),
+    CONSTRAINT fk_visits_vehicle FOREIGN KEY (vehicle_id, tenant_id) REFERENCES shared.vehicles(id, tenant_id),
+    CONSTRAINT fk_visits_marked_by FOREIGN KEY (marked_by_id, tenant_id) REFERENCES shared.users(id, tenant_id)
+) PARTITION BY LIST (tenant_id);
+
+-- Serves both per-campus day lookups and the cross-campus aggregate (partition-wise)
+CREATE INDEX IF NOT EXISTS idx_shared_visits_date ON shared.visits(tenant_id, visit_date);
+CREATE INDEX IF NOT EXISTS idx_shared_visits_vehicle ON shared.visits(tenant_id, vehicle_id);
+
+CREATE TABLE IF NOT EXISTS shared.audit_logs (
+    id BIGSERIAL,
+    tenant_id VARCHAR(20) NOT NULL DEFAULT current_setting('app.tenant_id', true),
+    user_id BIGINT,
+    action VARCHAR(50) NOT NULL,
+    entity_type VARCHAR(50),
+    entity_id VARCHAR(100),
+    details TEXT,
+    ip_address VARCHAR(45),
+    timestamp TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, tenant_id, timestamp),
+    CONSTRAINT fk_audit_logs_user FOREIGN KEY (user_id, tenant_id) REFERENCES shared.users(id, tenant_id)
+) PARTITION BY LIST (tenant_id);
+
+-- Keyset pagination for /admin/audit; replaces the earlier (tenant_id, timestamp) and (tenant_id, user_id) indexes
+DROP INDEX IF EXISTS shared.idx_shared_audit_logs_timestamp;
+DROP INDEX IF EXISTS shared.idx_shared_audit_logs_user;
+CREATE INDEX IF NOT EXISTS idx_shared_audit_logs_time ON shared.audit_logs(tenant_id, timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_shared_audit_logs_user_time ON shared.audit_logs(tenant_id, user_id, timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_shared_audit_logs_user_action_time ON shared.audit_logs(tenant_id, user_id, action, timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_shared_audit_logs_action_time ON shared.audit_logs(tenant_id, action, timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_shared_audit_logs_entity_time ON shared.audit_logs(tenant_id, entity_type, entity_id, timestamp, id);
+
+-- Row-level security: a session sees only its own campus, unless a cross-campus
+-- admin query has set app.cross_tenant for its transaction
+ALTER TABLE shared.users ENABLE ROW LEVEL SECURITY;
+ALTER TABLE shared.users FORCE ROW LEVEL SECURITY;
+DROP POLICY IF EXISTS tenant_isolation ON shared.users;
+CREATE POLICY tenant_isolation ON shared.users
+    USING (tenant_id = current_setting('app.tenant_id', true) OR current_setting('app.cross_tenant', true) = 'on')
+    WITH CHECK (tenant_id = current_setting('app.tenant_id', true) OR current_setting('app.cross_tenant', true) = 'on');
+
+ALTER TABLE shared.vehicles ENABLE ROW LEVEL SECURITY;
+ALTER TABLE shared.vehicles FORCE ROW LEVEL SECURITY;
+DROP POLICY IF EXISTS tenant_isolation ON shared.vehicles;
+CREATE POLICY tenant_isolation ON shared.vehicles
+    USING (tenant_id = current_setting('app.tenant_id', true) OR current_setting('app.cross_tenant', true) = 'on')
+    WITH CHECK (tenant_id = current_setting('app.tenant_id', true) OR current_setting('app.cross_tenant', true) = 'on');
+
+ALTER TABLE shared.visits ENABLE ROW LEVEL SECURITY;
+ALTER TABLE shared.visits FORCE ROW LEVEL SECURITY;
+DROP POLICY IF EXISTS tenant_isolation ON shared.visits;
+CREATE POLICY tenant_isolation ON shared.visits
+    USING (tenant_id = current_setting('app.tenant_id', true) OR current_setting('app.cross_tenant', true) = 'on')
+    WITH CHECK (tenant_id = current_setting('app.tenant_id', true) OR current_setting('app.cross_tenant', true) = 'on');
+
+ALTER TABLE shared.audit_logs ENABLE ROW LEVEL SECURITY;
+ALTER TABLE shared.audit_logs FORCE ROW LEVEL SECURITY;
+DROP POLICY IF EXISTS tenant_isolation ON shared.audit_logs;
+CREATE POLICY tenant_isolation ON shared.audit_logs
+    USING (tenant_id = current_setting('app.tenant_id', true) OR current_setting('app.cross_tenant', true) = 'on')
+    WITH CHECK (tenant_id = current_setting('app.tenant_id', true) OR current_setting('app.cross_tenant', true) = 'on');
+
+-- Revoked tokens are not campus data; in shared mode they live in public
+CREATE TABLE IF NOT EXISTS public.token_blacklist (
+    id BIGSERIAL PRIMARY KEY,
+    token_hash VARCHAR(64) NOT NULL UNIQUE,
+    expires_at TIMESTAMP NOT NULL,
+    blacklisted_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    reason VARCHAR(50)
+);
+
+CREATE INDEX IF NOT EXISTS idx_expires_at ON public.token_blacklist(expires_at);
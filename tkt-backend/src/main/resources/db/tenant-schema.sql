@@ -0,0 +1,94 @@
+-- ================================================================
+-- TKT Backend - Tenant Schema Template
+-- Tables of a single campus schema, used by TenantProvisioningService
+-- to provision new campuses online. ${schema} is replaced with the
+-- (validated) tenant id; keep in sync with init-schemas.sql.
+-- ================================================================
+
+CREATE SCHEMA IF NOT EXISTS ${schema};
+
+CREATE TABLE IF NOT EXISTS ${schema}.users (
+    id BIGSERIAL PRIMARY KEY,
+    tenant_id VARCHAR(20) NOT NULL,
+    mobile_number VARCHAR(500) NOT NULL,
+    mobile_hash VARCHAR(64) NOT NULL UNIQUE,
+    pin_hash VARCHAR(60) NOT NULL,
+    role VARCHAR(20) NOT NULL,
+    active BOOLEAN NOT NULL DEFAULT true,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_mobile_hash ON ${schema}.users(mobile_hash);
+CREATE INDEX IF NOT EXISTS idx_role ON ${schema}.users(role);
+CREATE INDEX IF NOT EXISTS idx_tenant_id ON ${schema}.users(tenant_id);
+
+CREATE TABLE IF NOT EXISTS ${schema}.vehicles (
+    id BIGSERIAL PRIMARY KEY,
+    owner_name VARCHAR(100) NOT NULL,
+    owner_mobile VARCHAR(500) NOT NULL,
+    owner_mobile_hash VARCHAR(64) NOT NULL,
+    vehicle_number VARCHAR(500) NOT NULL,
+    vehicle_number_hash VARCHAR(64) NOT NULL UNIQUE,
+    vehicle_type VARCHAR(10) NOT NULL,
+    created_by_id BIGINT NOT NULL REFERENCES ${schema}.users(id),
+    active BOOLEAN NOT NULL DEFAULT true,
+    car_image_url VARCHAR(500),
+    key_image_url VARCHAR(500),
+    car_thumbnail_url VARCHAR(500),
+    car_medium_url VARCHAR(500),
+    key_thumbnail_url VARCHAR(500),
+    key_medium_url VARCHAR(500),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_vehicle_number_hash ON ${schema}.vehicles(vehicle_number_hash);
+CREATE INDEX IF NOT EXISTS idx_owner_mobile_hash ON ${schema}.vehicles(owner_mobile_hash);
+CREATE INDEX IF NOT EXISTS idx_vehicle_type ON ${schema}.vehicles(vehicle_type);
+CREATE INDEX IF NOT EXISTS idx_created_by ON ${schema}.vehicles(created_by_id);
+
+CREATE TABLE IF NOT EXISTS ${schema}.visits (
+    id BIGSERIAL PRIMARY KEY,
+    vehicle_id BIGINT NOT NULL REFERENCES ${schema}.vehicles(id),
+    visit_date DATE NOT NULL,
+    arrived_at TIMESTAMP NOT NULL,
+    marked_by_id BIGINT NOT NULL REFERENCES ${schema}.users(id),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_vehicle_visit_date UNIQUE (vehicle_id, visit_date)
+);
+
+CREATE INDEX IF NOT EXISTS idx_visit_date ON ${schema}.visits(visit_date);
+CREATE INDEX IF NOT EXISTS idx_vehicle_id ON ${schema}.visits(vehicle_id);
+CREATE INDEX IF NOT EXISTS idx_marked_by ON ${schema}.visits(marked_by_id);
+
+-- Range-partitioned by month; partitions are created ahead and dropped for retention by AuditPartitionService
+CREATE TABLE IF NOT EXISTS ${schema}.audit_logs (
+    id BIGSERIAL,
+    user_id BIGINT REFERENCES ${schema}.users(id),
+    action VARCHAR(50) NOT NULL,
+    entity_type VARCHAR(50),
+    entity_id VARCHAR(100),
+    details TEXT,
+    ip_address VARCHAR(45),
+    timestamp TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+-- Keyset pagination for /admin/audit: filter columns first, then (timestamp, id)
+CREATE INDEX IF NOT EXISTS idx_audit_time ON ${schema}.audit_logs(timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_audit_user_time ON ${schema}.audit_logs(user_id, timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_audit_user_action_time ON ${schema}.audit_logs(user_id, action, timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_audit_action_time ON ${schema}.audit_logs(action, timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_audit_entity_time ON ${schema}.audit_logs(entity_type, entity_id, timestamp, id);
+
+CREATE TABLE IF NOT EXISTS ${schema}.token_blacklist (
+    id BIGSERIAL PRIMARY KEY,
+    token_hash VARCHAR(64) NOT NULL UNIQUE,
+    expires_at TIMESTAMP NOT NULL,
+    blacklisted_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    reason VARCHAR(50)
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_token_hash ON ${schema}.token_blacklist(token_hash);
+CREATE INDEX IF NOT EXISTS idx_expires_at ON ${schema}.token_blacklist(expires_at);
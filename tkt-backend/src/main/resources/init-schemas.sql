@@ -49,6 +49,10 @@ CREATE TABLE IF NOT EXISTS vehicles (
     active BOOLEAN NOT NULL DEFAULT true,
     car_image_url VARCHAR(500),
     key_image_url VARCHAR(500),
+    car_thumbnail_url VARCHAR(500),
+    car_medium_url VARCHAR(500),
+    key_thumbnail_url VARCHAR(500),
+    key_medium_url VARCHAR(500),
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
 );
@@ -72,21 +76,24 @@ CREATE INDEX IF NOT EXISTS idx_visit_date ON visits(visit_date);
 CREATE INDEX IF NOT EXISTS idx_vehicle_id ON visits(vehicle_id);
 CREATE INDEX IF NOT EXISTS idx_marked_by ON visits(marked_by_id);
 
+-- Range-partitioned by month; partitions are created ahead and dropped for retention by AuditPartitionService
 CREATE TABLE IF NOT EXISTS audit_logs (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGSERIAL,
     user_id BIGINT REFERENCES users(id),
     action VARCHAR(50) NOT NULL,
     entity_type VARCHAR(50),
     entity_id VARCHAR(100),
     details TEXT,
     ip_address VARCHAR(45),
-    timestamp TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
-);
+    timestamp TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
 
-CREATE INDEX IF NOT EXISTS idx_user_id ON audit_logs(user_id);
-CREATE INDEX IF NOT EXISTS idx_action ON audit_logs(action);
-CREATE INDEX IF NOT EXISTS idx_entity_type ON audit_logs(entity_type);
-CREATE INDEX IF NOT EXISTS idx_timestamp ON audit_logs(timestamp);
+CREATE INDEX IF NOT EXISTS idx_audit_time ON audit_logs(timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_audit_user_time ON audit_logs(user_id, timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_audit_user_action_time ON audit_logs(user_id, action, timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_audit_action_time ON audit_logs(action, timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_audit_entity_time ON audit_logs(entity_type, entity_id, timestamp, id);
 
 CREATE TABLE IF NOT EXISTS token_blacklist (
     id BIGSERIAL PRIMARY KEY,
@@ -135,6 +142,10 @@ CREATE TABLE IF NOT EXISTS vehicles (
     active BOOLEAN NOT NULL DEFAULT true,
     car_image_url VARCHAR(500),
     key_image_url VARCHAR(500),
+    car_thumbnail_url VARCHAR(500),
+    car_medium_url VARCHAR(500),
+    key_thumbnail_url VARCHAR(500),
+    key_medium_url VARCHAR(500),
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
 );
@@ -158,21 +169,24 @@ CREATE INDEX IF NOT EXISTS idx_visit_date ON visits(visit_date);
 CREATE INDEX IF NOT EXISTS idx_vehicle_id ON visits(vehicle_id);
 CREATE INDEX IF NOT EXISTS idx_marked_by ON visits(marked_by_id);
 
+-- Range-partitioned by month; partitions are created ahead and dropped for retention by AuditPartitionService
 CREATE TABLE IF NOT EXISTS audit_logs (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGSERIAL,
     user_id BIGINT REFERENCES users(id),
     action VARCHAR(50) NOT NULL,
     entity_type VARCHAR(50),
     entity_id VARCHAR(100),
     details TEXT,
     ip_address VARCHAR(45),
-    timestamp TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
-);
+    timestamp TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
 
-CREATE INDEX IF NOT EXISTS idx_user_id ON audit_logs(user_id);
-CREATE INDEX IF NOT EXISTS idx_action ON audit_logs(action);
-CREATE INDEX IF NOT EXISTS idx_entity_type ON audit_logs(entity_type);
-CREATE INDEX IF NOT EXISTS idx_timestamp ON audit_logs(timestamp);
+CREATE INDEX IF NOT EXISTS idx_audit_time ON audit_logs(timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_audit_user_time ON audit_logs(user_id, timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_audit_user_action_time ON audit_logs(user_id, action, timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_audit_action_time ON audit_logs(action, timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_audit_entity_time ON audit_logs(entity_type, entity_id, timestamp, id);
 
 CREATE TABLE IF NOT EXISTS token_blacklist (
     id BIGSERIAL PRIMARY KEY,
@@ -221,6 +235,10 @@ CREATE TABLE IF NOT EXISTS vehicles (
     active BOOLEAN NOT NULL DEFAULT true,
     car_image_url VARCHAR(500),
     key_image_url VARCHAR(500),
+    car_thumbnail_url VARCHAR(500),
+    car_medium_url VARCHAR(500),
+    key_thumbnail_url VARCHAR(500),
+    key_medium_url VARCHAR(500),
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
 );
@@ -244,21 +262,24 @@ CREATE INDEX IF NOT EXISTS idx_visit_date ON visits(visit_date);
 CREATE INDEX IF NOT EXISTS idx_vehicle_id ON visits(vehicle_id);
 CREATE INDEX IF NOT EXISTS idx_marked_by ON visits(marked_by_id);
 
+-- Range-partitioned by month; partitions are created ahead and dropped for retention by AuditPartitionService
 CREATE TABLE IF NOT EXISTS audit_logs (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGSERIAL,
     user_id BIGINT REFERENCES users(id),
     action VARCHAR(50) NOT NULL,
     entity_type VARCHAR(50),
     entity_id VARCHAR(100),
     details TEXT,
     ip_address VARCHAR(45),
-    timestamp TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
-);
+    timestamp TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
 
-CREATE INDEX IF NOT EXISTS idx_user_id ON audit_logs(user_id);
-CREATE INDEX IF NOT EXISTS idx_action ON audit_logs(action);
-CREATE INDEX IF NOT EXISTS idx_entity_type ON audit_logs(entity_type);
-CREATE INDEX IF NOT EXISTS idx_timestamp ON audit_logs(timestamp);
+CREATE INDEX IF NOT EXISTS idx_audit_time ON audit_logs(timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_audit_user_time ON audit_logs(user_id, timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_audit_user_action_time ON audit_logs(user_id, action, timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_audit_action_time ON audit_logs(action, timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_audit_entity_time ON audit_logs(entity_type, entity_id, timestamp, id);
 
 CREATE TABLE IF NOT EXISTS token_blacklist (
     id BIGSERIAL PRIMARY KEY,
@@ -307,6 +328,10 @@ CREATE TABLE IF NOT EXISTS vehicles (
     active BOOLEAN NOT NULL DEFAULT true,
     car_image_url VARCHAR(500),
     key_image_url VARCHAR(500),
+    car_thumbnail_url VARCHAR(500),
+    car_medium_url VARCHAR(500),
+    key_thumbnail_url VARCHAR(500),
+    key_medium_url VARCHAR(500),
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
 );
@@ -330,21 +355,24 @@ CREATE INDEX IF NOT EXISTS idx_visit_date ON visits(visit_date);
 CREATE INDEX IF NOT EXISTS idx_vehicle_id ON visits(vehicle_id);
 CREATE INDEX IF NOT EXISTS idx_marked_by ON visits(marked_by_id);
 
+-- Range-partitioned by month; partitions are created ahead and dropped for retention by AuditPartitionService
 CREATE TABLE IF NOT EXISTS audit_logs (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGSERIAL,
     user_id BIGINT REFERENCES users(id),
     action VARCHAR(50) NOT NULL,
     entity_type VARCHAR(50),
     entity_id VARCHAR(100),
     details TEXT,
     ip_address VARCHAR(45),
-    timestamp TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
-);
-
-CREATE INDEX IF NOT EXISTS idx_user_id ON audit_logs(user_id);
-CREATE INDEX IF NOT EXISTS idx_action ON audit_logs(action);
-CREATE INDEX IF NOT EXISTS idx_entity_type ON audit_logs(entity_type);
-CREATE INDEX IF NOT EXISTS idx_timestamp ON audit_logs(timestamp);
+    timestamp TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+CREATE INDEX IF NOT EXISTS idx_audit_time ON audit_logs(timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_audit_user_time ON audit_logs(user_id, timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_audit_user_action_time ON audit_logs(user_id, action, timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_audit_action_time ON audit_logs(action, timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_audit_entity_time ON audit_logs(entity_type, entity_id, timestamp, id);
 
 CREATE TABLE IF NOT EXISTS token_blacklist (
     id BIGSERIAL PRIMARY KEY,
@@ -0,0 +1,211 @@
+package com.example.thekingstemple.service;
+
+import com.example.thekingstemple.entity.Vehicle;
+import com.example.thekingstemple.exception.ResourceNotFoundException;
+import com.example.thekingstemple.repository.VehicleRepository;
+import com.example.thekingstemple.service.ImageRenditionService.Photo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class VehiclePhotoServiceTest {
+
+	private static final String CONTENT = "0123456789abcdefghij";
+	private static final String ETAG = "\"hash\"";
+	private static final String VERSION = "photo-1.jpg";
+
+	@TempDir
+	Path directory;
+
+	private StorageService storageService;
+	private VehiclePhotoService vehiclePhotoService;
+	private String fileUrl;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		Path file = Files.writeString(directory.resolve(VERSION), CONTENT);
+		fileUrl = file.toString();
+
+		Vehicle vehicle = Vehicle.builder().id(1L).carImageUrl(fileUrl).build();
+		VehicleRepository vehicleRepository = mock(VehicleRepository.class);
+		when(vehicleRepository.findById(1L)).thenReturn(Optional.of(vehicle));
+		ImageRenditionService imageRenditionService = mock(ImageRenditionService.class);
+		when(imageRenditionService.getOriginalUrl(vehicle, Photo.CAR)).thenReturn(fileUrl);
+
+		storageService = mock(StorageService.class);
+		when(storageService.stat(fileUrl))
+				.thenReturn(new StorageService.StoredFile(CONTENT.length(), "image/jpeg", "hash", file));
+
+		vehiclePhotoService = new VehiclePhotoService(vehicleRepository, storageService, imageRenditionService);
+	}
+
+	@Test
+	void servesWholeFileWithEtag() throws IOException {
+		MockHttpServletResponse response = serve(VERSION, new MockHttpServletRequest("GET", "/"));
+
+		assertEquals(200, response.getStatus());
+		assertEquals(ETAG, response.getHeader(HttpHeaders.ETAG));
+		assertEquals("bytes", response.getHeader(HttpHeaders.ACCEPT_RANGES));
+		assertEquals("private, max-age=31536000, immutable", response.getHeader(HttpHeaders.CACHE_CONTROL));
+		assertEquals(CONTENT.length(), response.getContentLengthLong());
+		assertEquals(CONTENT, response.getContentAsString());
+	}
+
+	@Test
+	void requestWithoutCurrentVersionMustRevalidate() throws IOException {
+		MockHttpServletResponse response = serve("old.jpg", new MockHttpServletRequest("GET", "/"));
+
+		assertEquals("private, no-cache", response.getHeader(HttpHeaders.CACHE_CONTROL));
+	}
+
+	@Test
+	void matchingIfNoneMatchReturnsNotModified() throws IOException {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+		request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"other\", W/" + ETAG);
+
+		MockHttpServletResponse response = serve(VERSION, request);
+
+		assertEquals(304, response.getStatus());
+		assertEquals(0, response.getContentAsByteArray().length);
+	}
+
+	@Test
+	void rangeReturnsPartialContent() throws IOException {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+		request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+
+		MockHttpServletResponse response = serve(VERSION, request);
+
+		assertEquals(206, response.getStatus());
+		assertEquals("bytes 2-5/20", response.getHeader(HttpHeaders.CONTENT_RANGE));
+		assertEquals(4, response.getContentLengthLong());
+		assertEquals("2345", response.getContentAsString());
+	}
+
+	@Test
+	void suffixRangeReturnsTail() throws IOException {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+		request.addHeader(HttpHeaders.RANGE, "bytes=-3");
+
+		MockHttpServletResponse response = serve(VERSION, request);
+
+		assertEquals(206, response.getStatus());
+		assertEquals("bytes 17-19/20", response.getHeader(HttpHeaders.CONTENT_RANGE));
+		assertEquals("hij", response.getContentAsString());
+	}
+
+	@Test
+	void rangeWithMatchingIfRangeReturnsPartialContent() throws IOException {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+		request.addHeader(HttpHeaders.RANGE, "bytes=10-");
+		request.addHeader(HttpHeaders.IF_RANGE, ETAG);
+
+		MockHttpServletResponse response = serve(VERSION, request);
+
+		assertEquals(206, response.getStatus());
+		assertEquals("abcdefghij", response.getContentAsString());
+	}
+
+	@Test
+	void rangeWithStaleIfRangeReturnsWholeFile() throws IOException {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+		request.addHeader(HttpHeaders.RANGE, "bytes=10-");
+		request.addHeader(HttpHeaders.IF_RANGE, "\"stale\"");
+
+		MockHttpServletResponse response = serve(VERSION, request);
+
+		assertEquals(200, response.getStatus());
+		assertNull(response.getHeader(HttpHeaders.CONTENT_RANGE));
+		assertEquals(CONTENT, response.getContentAsString());
+	}
+
+	@Test
+	void rangeBeyondEndIsNotSatisfiable() throws IOException {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+		request.addHeader(HttpHeaders.RANGE, "bytes=20-30");
+
+		MockHttpServletResponse response = serve(VERSION, request);
+
+		assertEquals(416, response.getStatus());
+		assertEquals("bytes */20", response.getHeader(HttpHeaders.CONTENT_RANGE));
+		assertEquals(0, response.getContentAsByteArray().length);
+	}
+
+	@Test
+	void invalidOrMultipleRangesReturnWholeFile() throws IOException {
+		for (String range : new String[]{"bytes=5-2", "items=0-1", "bytes=0-1,4-5"}) {
+			MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+			request.addHeader(HttpHeaders.RANGE, range);
+
+			MockHttpServletResponse response = serve(VERSION, request);
+
+			assertEquals(200, response.getStatus(), range);
+			assertEquals(CONTENT, response.getContentAsString(), range);
+		}
+	}
+
+	@Test
+	void headSendsHeadersOnly() throws IOException {
+		MockHttpServletResponse response = serve(VERSION, new MockHttpServletRequest("HEAD", "/"));
+
+		assertEquals(200, response.getStatus());
+		assertEquals(CONTENT.length(), response.getContentLengthLong());
+		assertEquals(0, response.getContentAsByteArray().length);
+	}
+
+	@Test
+	void localFileIsHandedToSendfileWhenSupported() throws IOException {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+		request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+		request.addHeader(HttpHeaders.RANGE, "bytes=4-");
+
+		MockHttpServletResponse response = serve(VERSION, request);
+
+		assertEquals(206, response.getStatus());
+		assertEquals(Path.of(fileUrl).toAbsolutePath().toString(), request.getAttribute("org.apache.tomcat.sendfile.filename"));
+		assertEquals(4L, request.getAttribute("org.apache.tomcat.sendfile.start"));
+		assertEquals(20L, request.getAttribute("org.apache.tomcat.sendfile.end"));
+		assertArrayEquals(new byte[0], response.getContentAsByteArray());
+	}
+
+	@Test
+	void missingStoredFileIsNotFound() throws IOException {
+		when(storageService.stat(fileUrl)).thenThrow(new NoSuchFileException(fileUrl));
+
+		assertThrows(ResourceNotFoundException.class, () -> serve(VERSION, new MockHttpServletRequest("GET", "/")));
+	}
+
+	@Test
+	void unknownVehicleAndPhotoAreNotFound() {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		assertThrows(ResourceNotFoundException.class, () -> vehiclePhotoService.serve(
+				2L, "car", null, new MockHttpServletRequest("GET", "/"), response));
+		assertThrows(ResourceNotFoundException.class, () -> vehiclePhotoService.serve(
+				1L, "key", null, new MockHttpServletRequest("GET", "/"), response));
+		assertThrows(IllegalArgumentException.class, () -> vehiclePhotoService.serve(
+				1L, "plate", null, new MockHttpServletRequest("GET", "/"), response));
+	}
+
+	private MockHttpServletResponse serve(String version, MockHttpServletRequest request) throws IOException {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		vehiclePhotoService.serve(1L, "car", version, request, response);
+		return response;
+	}
+}
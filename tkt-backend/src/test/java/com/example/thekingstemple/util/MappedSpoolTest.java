@@ -0,0 +1,142 @@
+package com.example.thekingstemple.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappedSpoolTest {
+
+	// Header of 8 bytes + 20-byte payload: two records fit in a 64-byte segment
+	private static final int SEGMENT_SIZE = 64;
+	private static final int RECORD_SIZE = 28;
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void readsAppendedRecordsAcrossSegments() throws IOException {
+		MappedSpool spool = new MappedSpool(directory, SEGMENT_SIZE, 4);
+		for (int i = 0; i < 5; i++) {
+			assertTrue(spool.append(record(i)));
+		}
+
+		MappedSpool.Batch batch = spool.read(10);
+
+		assertEquals(List.of(text(0), text(1), text(2), text(3), text(4)), texts(batch));
+		assertEquals(3, spool.segmentCount());
+		assertEquals(new MappedSpool.Position(2, RECORD_SIZE), batch.end());
+	}
+
+	@Test
+	void commitDeletesConsumedSegmentsAndReopenResumesAtCheckpoint() throws IOException {
+		MappedSpool spool = new MappedSpool(directory, SEGMENT_SIZE, 4);
+		for (int i = 0; i < 5; i++) {
+			spool.append(record(i));
+		}
+		MappedSpool.Batch batch = spool.read(3);
+		assertEquals(List.of(text(0), text(1), text(2)), texts(batch));
+		spool.commit(batch.end());
+		assertEquals(2, spool.segmentCount());
+		spool.close();
+
+		MappedSpool reopened = new MappedSpool(directory, SEGMENT_SIZE, 4);
+
+		assertEquals(batch.end(), reopened.committed());
+		assertEquals(List.of(text(3), text(4)), texts(reopened.read(10)));
+	}
+
+	@Test
+	void appendFailsWhenFullUntilSegmentsAreCommitted() throws IOException {
+		MappedSpool spool = new MappedSpool(directory, SEGMENT_SIZE, 2);
+		for (int i = 0; i < 4; i++) {
+			assertTrue(spool.append(record(i)));
+		}
+		assertFalse(spool.append(record(4)));
+		assertFalse(spool.append(new byte[SEGMENT_SIZE]));
+
+		// Committing past the first segment deletes it
+		spool.commit(spool.read(3).end());
+
+		assertEquals(1, spool.segmentCount());
+		assertTrue(spool.append(record(4)));
+		assertEquals(List.of(text(3), text(4)), texts(spool.read(10)));
+	}
+
+	@Test
+	void tornTailIsCutOffOnReopen() throws IOException {
+		MappedSpool spool = new MappedSpool(directory, SEGMENT_SIZE, 4);
+		spool.append(record(0));
+		spool.append(record(1));
+		spool.close();
+		// Crash mid-write: the second record has its length but not all of its payload
+		overwrite(segment(0), RECORD_SIZE + 20, new byte[]{0, 0, 0, 0});
+
+		MappedSpool reopened = new MappedSpool(directory, SEGMENT_SIZE, 4);
+
+		assertEquals(List.of(text(0)), texts(reopened.read(10)));
+		// The torn record is zeroed, so new records are written in its place
+		assertTrue(reopened.append(record(2)));
+		assertEquals(List.of(text(0), text(2)), texts(reopened.read(10)));
+	}
+
+	@Test
+	void corruptRecordOfSealedSegmentIsSkippedWithRestOfSegment() throws IOException {
+		MappedSpool spool = new MappedSpool(directory, SEGMENT_SIZE, 4);
+		for (int i = 0; i < 5; i++) {
+			spool.append(record(i));
+		}
+		// Flip a payload byte of the first record; its CRC no longer matches
+		overwrite(segment(0), 8, new byte[]{'X'});
+
+		MappedSpool.Batch batch = spool.read(10);
+
+		assertEquals(List.of(text(2), text(3), text(4)), texts(batch));
+	}
+
+	@Test
+	void corruptRecordOfSegmentBeingWrittenStopsReading() throws IOException {
+		MappedSpool spool = new MappedSpool(directory, SEGMENT_SIZE, 4);
+		spool.append(record(0));
+		spool.append(record(1));
+		overwrite(segment(0), RECORD_SIZE + 8, new byte[]{'X'});
+
+		MappedSpool.Batch batch = spool.read(10);
+
+		// The record may still be in flight, so nothing after it is consumed
+		assertEquals(List.of(text(0)), texts(batch));
+		assertEquals(new MappedSpool.Position(0, RECORD_SIZE), batch.end());
+	}
+
+	private static String text(int i) {
+		return String.format("audit-event-%08d", i);
+	}
+
+	private static byte[] record(int i) {
+		return text(i).getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static List<String> texts(MappedSpool.Batch batch) {
+		return batch.records().stream().map(bytes -> new String(bytes, StandardCharsets.UTF_8)).toList();
+	}
+
+	private Path segment(long number) {
+		return directory.resolve(String.format("%020d.seg", number));
+	}
+
+	private static void overwrite(Path file, long offset, byte[] bytes) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+			channel.write(ByteBuffer.wrap(bytes), offset);
+		}
+	}
+}
@@ -0,0 +1,133 @@
+package com.example.thekingstemple.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MpscRingBufferTest {
+
+	@Test
+	void capacityRoundsUpToPowerOfTwo() {
+		assertEquals(8, new MpscRingBuffer<Integer>(5).capacity());
+		assertEquals(8, new MpscRingBuffer<Integer>(8).capacity());
+		assertThrows(IllegalArgumentException.class, () -> new MpscRingBuffer<Integer>(1));
+	}
+
+	@Test
+	void offerFailsWhenFullAndSucceedsOncePolled() {
+		MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(4);
+		for (int i = 0; i < 4; i++) {
+			assertTrue(buffer.offer(i));
+		}
+		assertFalse(buffer.offer(4));
+		assertEquals(4, buffer.size());
+
+		assertEquals(0, buffer.poll());
+		assertTrue(buffer.offer(4));
+		assertFalse(buffer.offer(5));
+	}
+
+	@Test
+	void keepsFifoOrderAcrossManyLaps() {
+		MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(4);
+		int next = 0;
+		int expected = 0;
+		// Offer three, poll two: the positions wrap around the four slots many times
+		for (int lap = 0; lap < 1000; lap++) {
+			for (int i = 0; i < 3 && buffer.offer(next); i++) {
+				next++;
+			}
+			for (int i = 0; i < 2; i++) {
+				Integer element = buffer.poll();
+				if (element != null) {
+					assertEquals(expected++, element);
+				}
+			}
+		}
+		Integer element;
+		while ((element = buffer.poll()) != null) {
+			assertEquals(expected++, element);
+		}
+		assertEquals(next, expected);
+		assertEquals(0, buffer.size());
+		assertNull(buffer.poll());
+	}
+
+	@Test
+	void drainStopsAtLimit() {
+		MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(8);
+		for (int i = 0; i < 5; i++) {
+			buffer.offer(i);
+		}
+		List<Integer> drained = new ArrayList<>();
+
+		assertEquals(3, buffer.drain(drained::add, 3));
+		assertEquals(List.of(0, 1, 2), drained);
+		assertEquals(2, buffer.drain(drained::add, 10));
+		assertEquals(List.of(0, 1, 2, 3, 4), drained);
+	}
+
+	@Test
+	void concurrentProducersLoseAndDuplicateNothing() throws Exception {
+		int producers = 4;
+		int perProducer = 20_000;
+		MpscRingBuffer<Long> buffer = new MpscRingBuffer<>(64);
+		ExecutorService executor = Executors.newFixedThreadPool(producers);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int p = 0; p < producers; p++) {
+				long producer = p;
+				futures.add(executor.submit(() -> {
+					start.await();
+					for (long i = 0; i < perProducer; i++) {
+						// Encode producer and sequence; yield while the small buffer is full
+						while (!buffer.offer(producer * perProducer + i)) {
+							Thread.yield();
+						}
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+
+			// Elements of one producer must arrive in the order it offered them
+			long[] nextOfProducer = new long[producers];
+			int received = 0;
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+			while (received < producers * perProducer) {
+				Long element = buffer.poll();
+				if (element == null) {
+					assertTrue(System.nanoTime() < deadline, "Timed out after " + received + " elements");
+					Thread.yield();
+					continue;
+				}
+				int producer = (int) (element / perProducer);
+				assertEquals(nextOfProducer[producer]++, element % perProducer);
+				received++;
+			}
+			for (Future<?> future : futures) {
+				future.get(5, TimeUnit.SECONDS);
+			}
+
+			assertNull(buffer.poll());
+			for (long next : nextOfProducer) {
+				assertEquals(perProducer, next);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,69 @@
+#!/bin/bash
+
+# ================================================================
+# TKT Backend - Platform vs Virtual Thread Capacity Benchmark
+# Fires the same authenticated GET at increasing concurrency levels
+# and reports throughput, latency and failures per level.
+#
+# Run it once against each mode and compare the tables:
+#   VIRTUAL_THREADS_ENABLED=false ./mvnw spring-boot:run   (Tomcat pool, 200 threads)
+#   VIRTUAL_THREADS_ENABLED=true  ./mvnw spring-boot:run
+# Platform mode queues requests beyond the Tomcat pool; virtual mode
+# admits them all and queues on the connection pool (DB_POOL_SIZE).
+# Add -Djdk.tracePinnedThreads=short to the JVM to spot pinning.
+# ================================================================
+
+set -e
+
+BASE_URL="${BASE_URL:-http://localhost:8080/api}"
+ENDPOINT="${ENDPOINT:-/attendance/visits-today}"
+MOBILE="${MOBILE:-9133733197}"
+PIN="${PIN:-777777}"
+CAMPUS="${CAMPUS:-east}"
+LEVELS="${LEVELS:-50 100 200 400 800}"
+REQUESTS_PER_CLIENT="${REQUESTS_PER_CLIENT:-10}"
+TIMEOUT="${TIMEOUT:-10}"
+
+echo "=========================================="
+echo "TKT Thread Mode Benchmark"
+echo "=========================================="
+echo "Target:      $BASE_URL$ENDPOINT"
+echo "Levels:      $LEVELS (x $REQUESTS_PER_CLIENT requests per client)"
+echo ""
+
+TOKEN=$(curl -s -H "Content-Type: application/json" \
+    -d "{\"mobileNumber\":\"$MOBILE\",\"pin\":\"$PIN\",\"tenantId\":\"$CAMPUS\"}" \
+    "$BASE_URL/auth/login" | sed -n 's/.*"accessToken":"\([^"]*\)".*/\1/p')
+
+if [ -z "$TOKEN" ]; then
+    echo "❌ Login failed, cannot run benchmark"
+    exit 1
+fi
+
+RESULTS=$(mktemp)
+trap 'rm -f "$RESULTS"' EXIT
+
+# Warm up (JIT, connection pool)
+seq 100 | xargs -P 20 -I{} \
+    curl -s -o /dev/null -H "Authorization: Bearer $TOKEN" "$BASE_URL$ENDPOINT"
+
+printf "%-12s %-12s %-10s %-10s %-10s %-10s\n" "concurrency" "req/s" "p50" "p99" "max" "failed"
+for LEVEL in $LEVELS; do
+    : > "$RESULTS"
+    TOTAL=$((LEVEL * REQUESTS_PER_CLIENT))
+
+    START=$(date +%s.%N)
+    seq "$TOTAL" | xargs -P "$LEVEL" -I{} \
+        curl -s -o /dev/null -m "$TIMEOUT" -w "%{http_code} %{time_total}\n" \
+        -H "Authorization: Bearer $TOKEN" "$BASE_URL$ENDPOINT" >> "$RESULTS" || true
+    END=$(date +%s.%N)
+
+    ELAPSED=$(echo "$END - $START" | bc)
+    FAILED=$(grep -vc "^200 " "$RESULTS" || true)
+    STATS=$(cut -d' ' -f2 "$RESULTS" | sort -n | awk '
+        { a[NR] = $1 }
+        END { printf "%.3f %.3f %.3f", a[int(NR * 0.50) + 1], a[int(NR * 0.99) + 1], a[NR] }')
+
+    printf "%-12s %-12s %-10s %-10s %-10s %-10s\n" "$LEVEL" \
+        "$(echo "scale=1; $TOTAL / $ELAPSED" | bc)" $STATS "$FAILED"
+done
@@ -17,6 +17,7 @@ import { useFocusEffect } from '@react-navigation/native';
 import { searchVehicles, clearSearchResults } from '../slices/vehicleSlice';
 import { markArrival } from '../slices/attendanceSlice';
 import { reportsAPI } from '../services/api';
+import { API_CONFIG } from '../config/api';
 import { Ionicons } from '@expo/vector-icons';
 
 const HomeScreen = ({ navigation }) => {
@@ -27,6 +28,18 @@ const HomeScreen = ({ navigation }) => {
   const [markingAttendance, setMarkingAttendance] = useState(null);
   const dispatch = useDispatch();
   const { searchResults } = useSelector((state) => state.vehicle);
+  const { accessToken } = useSelector((state) => state.auth);
+
+  // Thumbnails are private and served by the API; fall back to the original photo until one exists
+  const photoSource = (item, photo, originalUrl) => {
+    const thumbnailPath = item.imageUrls?.[`${photo}-thumbnail`];
+    return thumbnailPath
+      ? {
+          uri: `${API_CONFIG.BASE_URL}${thumbnailPath}`,
+          headers: { Authorization: `Bearer ${accessToken}` },
+        }
+      : { uri: originalUrl };
+  };
 
   useFocusEffect(
     useCallback(() => {
@@ -110,7 +123,7 @@ const HomeScreen = ({ navigation }) => {
             <View style={styles.imageWrapper}>
               <Text style={styles.imageLabel}>Car Image</Text>
               <Image
-                source={{ uri: item.carImageUrl }}
+                source={photoSource(item, 'car', item.carImageUrl)}
                 style={styles.vehicleImage}
                 resizeMode="cover"
               />
@@ -120,7 +133,7 @@ const HomeScreen = ({ navigation }) => {
             <View style={styles.imageWrapper}>
               <Text style={styles.imageLabel}>Key Image</Text>
               <Image
-                source={{ uri: item.keyImageUrl }}
+                source={photoSource(item, 'key', item.keyImageUrl)}
                 style={styles.vehicleImage}
                 resizeMode="cover"
               />